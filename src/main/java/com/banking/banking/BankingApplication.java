@@ -1,9 +1,16 @@
 package com.banking.banking;
 
+import com.banking.banking.config.BankingProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableConfigurationProperties(BankingProperties.class)
+@EnableAsync
+@EnableScheduling
 public class BankingApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(BankingApplication.class, args);
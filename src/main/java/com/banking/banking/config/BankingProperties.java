@@ -0,0 +1,136 @@
+package com.banking.banking.config;
+
+import com.banking.banking.repository.AccountSnapshot;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banking")
+public class BankingProperties {
+
+    /**
+     * Distinguishes the operation ids issued by this instance from those of other instances, 0 to 1023.
+     */
+    private int nodeId = 0;
+    private final Engine engine = new Engine();
+    private final Journal journal = new Journal();
+    private final Idempotency idempotency = new Idempotency();
+    private final Snapshot snapshot = new Snapshot();
+    private final History history = new History();
+    private final Admission admission = new Admission();
+    private final Events events = new Events();
+    private final Reconciliation reconciliation = new Reconciliation();
+
+    @Getter
+    @Setter
+    public static class Engine {
+        private Mode mode = Mode.LOCKING;
+        private int shards = Runtime.getRuntime().availableProcessors();
+        private int queueCapacity = 1024;
+
+        public enum Mode {
+            /**
+             * Mutations run on the request thread under per-account lock stripes.
+             */
+            LOCKING,
+            /**
+             * Mutations are handed to the single thread owning the account's shard.
+             */
+            SHARDED
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Idempotency {
+        private Duration ttl = Duration.ofHours(24);
+        private int maxEntries = 100_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Snapshot {
+        /**
+         * Account snapshot loaded at startup instead of the built-in demo account.
+         */
+        private String path;
+        private AccountSnapshot.Format format = AccountSnapshot.Format.CSV;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+    }
+
+    @Getter
+    @Setter
+    public static class History {
+        /**
+         * Most recent operations of each account kept on the heap, rounded up to whole chunks of 4096.
+         * Older operations are sealed into off-heap buffers.
+         */
+        private int hotOperations = 16_384;
+    }
+
+    @Getter
+    @Setter
+    public static class Admission {
+        /**
+         * Operations admitted at once across all accounts; beyond it requests fail with 503.
+         */
+        private int maxInFlight = 512;
+        /**
+         * Operations admitted at once on one account; beyond it requests fail with 429.
+         */
+        private int maxPerAccount = 64;
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Events {
+        /**
+         * Events kept for slow or resuming subscribers, rounded up to a power of two.
+         */
+        private int capacity = 65_536;
+        private Duration pollInterval = Duration.ofMillis(10);
+        private Duration keepAlive = Duration.ofSeconds(15);
+        /**
+         * Open streams beyond this are refused with a 503.
+         */
+        private int maxSubscribers = 256;
+        /**
+         * Threads shared by all subscribers to poll the ring and write to their clients.
+         */
+        private int dispatcherThreads = 2;
+        /**
+         * A subscriber whose client has not taken a write within this is closed.
+         */
+        private Duration writeTimeout = Duration.ofSeconds(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Reconciliation {
+        /**
+         * Cron expression of the scheduled reconciliation, {@code -} to only run it on demand.
+         */
+        private String cron = "-";
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+    }
+
+    @Getter
+    @Setter
+    public static class Journal {
+        private boolean enabled = false;
+        private String path = "data/operations.journal";
+        /**
+         * Forces every record to disk before the operation is acknowledged. When off, records are
+         * flushed in groups every {@code flushInterval}.
+         */
+        private boolean strictDurability = false;
+        private Duration flushInterval = Duration.ofMillis(10);
+        private DataSize regionSize = DataSize.ofMegabytes(64);
+    }
+}
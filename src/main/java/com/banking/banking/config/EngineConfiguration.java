@@ -0,0 +1,25 @@
+package com.banking.banking.config;
+
+import com.banking.banking.engine.AccountEngine;
+import com.banking.banking.engine.ShardedAccountEngine;
+import com.banking.banking.engine.StripedLockAccountEngine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class EngineConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "banking.engine", name = "mode", havingValue = "locking", matchIfMissing = true)
+    public AccountEngine stripedLockAccountEngine() {
+        return new StripedLockAccountEngine();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "banking.engine", name = "mode", havingValue = "sharded")
+    public AccountEngine shardedAccountEngine(BankingProperties properties) {
+        BankingProperties.Engine engine = properties.getEngine();
+        return new ShardedAccountEngine(engine.getShards(), engine.getQueueCapacity());
+    }
+}
@@ -0,0 +1,23 @@
+package com.banking.banking.config;
+
+import com.banking.banking.repository.OperationJournal;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+public class JournalConfiguration {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "banking.journal", name = "enabled", havingValue = "true")
+    public OperationJournal operationJournal(BankingProperties properties) throws IOException {
+        BankingProperties.Journal journal = properties.getJournal();
+        return OperationJournal.open(Path.of(journal.getPath()),
+                journal.getRegionSize().toBytes(),
+                journal.isStrictDurability(),
+                journal.getFlushInterval());
+    }
+}
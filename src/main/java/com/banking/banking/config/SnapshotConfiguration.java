@@ -0,0 +1,20 @@
+package com.banking.banking.config;
+
+import com.banking.banking.repository.AccountSnapshot;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class SnapshotConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "banking.snapshot", name = "path")
+    public AccountSnapshot accountSnapshot(BankingProperties properties) {
+        BankingProperties.Snapshot snapshot = properties.getSnapshot();
+        return new AccountSnapshot(Path.of(snapshot.getPath()), snapshot.getFormat(), snapshot.getParallelism(),
+                properties.getHistory().getHotOperations());
+    }
+}
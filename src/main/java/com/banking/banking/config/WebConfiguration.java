@@ -0,0 +1,26 @@
+package com.banking.banking.config;
+
+import com.banking.banking.converter.OperationBinaryHttpMessageConverter;
+import com.banking.banking.converter.OperationSliceJsonHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Configuration
+public class WebConfiguration implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // before Jackson, which would otherwise serialize the slice as a bean
+        converters.add(0, new OperationSliceJsonHttpMessageConverter(objectMapper));
+        // after Jackson, so that clients accepting anything keep getting JSON
+        converters.add(new OperationBinaryHttpMessageConverter());
+    }
+}
@@ -0,0 +1,31 @@
+package com.banking.banking.controller;
+
+import com.banking.banking.entity.dto.AccountSummaryDto;
+import com.banking.banking.entity.dto.BalanceDto;
+import com.banking.banking.service.AccountService;
+import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@RestController
+@RequestMapping("/api")
+public class AccountController {
+
+    private final AccountService accountService;
+
+    @GetMapping("/v1/accounts/{accountId}/balance")
+    public ResponseEntity<BalanceDto> getBalance(@PathVariable Long accountId,
+                                                 @RequestParam(required = false)
+                                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(accountService.getBalance(accountId, at));
+    }
+
+    @GetMapping("/v1/accounts/{accountId}/summary")
+    public ResponseEntity<AccountSummaryDto> getSummary(@PathVariable Long accountId) {
+        return ResponseEntity.ok(accountService.getSummary(accountId));
+    }
+}
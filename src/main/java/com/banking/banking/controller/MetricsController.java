@@ -0,0 +1,22 @@
+package com.banking.banking.controller;
+
+import com.banking.banking.entity.dto.MetricsDto;
+import com.banking.banking.service.MetricsService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@AllArgsConstructor
+@RestController
+@RequestMapping("/api")
+public class MetricsController {
+
+    private final MetricsService metricsService;
+
+    @GetMapping("/v1/metrics")
+    public ResponseEntity<MetricsDto> getMetrics() {
+        return ResponseEntity.ok(metricsService.getMetrics());
+    }
+}
@@ -1,33 +1,129 @@
 package com.banking.banking.controller;
 
+import com.banking.banking.entity.OperationSlice;
 import com.banking.banking.entity.dto.OperationDto;
+import com.banking.banking.entity.dto.OperationPageDto;
+import com.banking.banking.entity.dto.OperationResultDto;
+import com.banking.banking.entity.enums.OperationType;
+import com.banking.banking.service.AdmissionControl;
+import com.banking.banking.service.IdempotencyCache;
 import com.banking.banking.service.OperationService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 @AllArgsConstructor
 @RestController
 @RequestMapping("/api")
 public class OperationController {
 
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    // keys are scoped per endpoint, so a key reused on another endpoint never returns this one's response
+    private static final String IDEMPOTENCY_SCOPE = "operations:";
+    private static final int STREAM_CHUNK_SIZE = 256;
+
     private final OperationService operationService;
+    private final IdempotencyCache idempotencyCache;
+    private final AdmissionControl admissionControl;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/v1/operations")
-    public ResponseEntity<OperationDto> createOperation(@RequestBody OperationDto operationDto) {
-        OperationDto createdOperation = operationService.processOperation(operationDto);
+    public ResponseEntity<OperationDto> createOperation(@RequestBody OperationDto operationDto,
+                                                        @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        Supplier<OperationDto> process = () -> admissionControl.execute(operationDto.getAccountId(),
+                () -> operationService.processOperation(operationDto));
+        OperationDto createdOperation = idempotencyKey == null
+                ? process.get()
+                : idempotencyCache.execute(IDEMPOTENCY_SCOPE + idempotencyKey,
+                Objects.hash(operationDto.getAccountId(), operationDto.getType(), operationDto.getAmount()), process);
         final URI location = ServletUriComponentsBuilder.fromCurrentServletMapping().path("/api/v1/operations").build().toUri();
         return ResponseEntity.created(location).body(createdOperation);
     }
 
+    @PostMapping("/v1/operations/async")
+    public CompletableFuture<ResponseEntity<OperationDto>> createOperationAsync(@RequestBody OperationDto operationDto) {
+        final URI location = ServletUriComponentsBuilder.fromCurrentServletMapping().path("/api/v1/operations").build().toUri();
+        return admissionControl.executeAsync(operationDto.getAccountId(), () -> operationService.processOperationAsync(operationDto))
+                .thenApply(createdOperation -> ResponseEntity.created(location).body(createdOperation));
+    }
+
+    @PostMapping("/v1/operations/batch")
+    public ResponseEntity<List<OperationResultDto>> createOperations(@RequestBody List<OperationDto> operationDtos) {
+        List<Long> accountIds = operationDtos.stream().map(OperationDto::getAccountId).distinct().toList();
+        return ResponseEntity.ok(admissionControl.execute(accountIds, () -> operationService.processOperations(operationDtos)));
+    }
+
     @GetMapping("/v1/operations")
-    public ResponseEntity<List<OperationDto>> getOperationsByAccountId(@RequestParam Long accountId) {
-        List<OperationDto> operations = operationService.getOperationsByAccountId(accountId);
-        return ResponseEntity.ok(operations);
+    public ResponseEntity<OperationSlice> getOperationsByAccountId(@RequestParam Long accountId,
+                                                                   @RequestParam(required = false)
+                                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                   @RequestParam(required = false)
+                                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                                   @RequestParam(required = false) OperationType type,
+                                                                   WebRequest request) {
+        // read before the history, so the tag never claims more than the body holds
+        String etag = "W/\"" + operationService.getLastOperationId(accountId) + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        // written straight from the history by OperationSliceJsonHttpMessageConverter, or the binary converter
+        OperationSlice operations = operationService.getOperationSlice(accountId, from, to, type);
+        return ResponseEntity.ok().eTag(etag).body(operations);
+    }
+
+    @GetMapping("/v1/operations/async")
+    public CompletableFuture<ResponseEntity<List<OperationDto>>> getOperationsByAccountIdAsync(@RequestParam Long accountId) {
+        return operationService.getOperationsByAccountIdAsync(accountId).thenApply(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/v1/operations", params = "limit")
+    public ResponseEntity<OperationPageDto> getOperationsPage(@RequestParam Long accountId,
+                                                              @RequestParam(defaultValue = "0") long after,
+                                                              @RequestParam int limit) {
+        return ResponseEntity.ok(operationService.getOperationsPage(accountId, after, limit));
+    }
+
+    @GetMapping(value = "/v1/operations", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamOperations(@RequestParam Long accountId,
+                                                                  @RequestParam(defaultValue = "0") long after) {
+        // The first chunk is read eagerly so that an unknown account still fails with a proper status.
+        OperationPageDto first = operationService.getOperationsPage(accountId, after, STREAM_CHUNK_SIZE);
+        StreamingResponseBody body = out -> {
+            ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                OperationPageDto page = first;
+                while (true) {
+                    for (OperationDto operation : page.getOperations()) {
+                        writer.writeValue(generator, operation);
+                        generator.writeRaw('\n');
+                    }
+                    generator.flush();
+                    if (page.getNextCursor() == null) {
+                        break;
+                    }
+                    page = operationService.getOperationsPage(accountId, page.getNextCursor(), STREAM_CHUNK_SIZE);
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
 
@@ -0,0 +1,76 @@
+package com.banking.banking.controller;
+
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.entity.dto.OperationDto;
+import com.banking.banking.event.OperationEvent;
+import com.banking.banking.event.OperationEventBus;
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+
+@AllArgsConstructor
+@RestController
+@RequestMapping("/api")
+public class OperationEventController {
+
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final OperationEventBus operationEventBus;
+
+    /**
+     * Streams applied operations as {@code operation} events whose id is the bus sequence. A client
+     * reconnecting with {@code Last-Event-ID} resumes after it; events it can no longer get are
+     * reported as one {@code gap} event with the missed sequence range, and an id this run never
+     * published gets a {@code reset} event instead.
+     */
+    @GetMapping(value = "/v1/operations/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestParam(required = false) Long accountId,
+                                   @RequestHeader(value = LAST_EVENT_ID, required = false) Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(0L);
+        OperationEventBus.Subscription subscription = operationEventBus.subscribe(accountId, lastEventId, new OperationEventBus.Sink() {
+            @Override
+            public void event(OperationEvent event) throws IOException {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(event.getSequence()))
+                        .name("operation")
+                        .data(OperationDto.builder()
+                                .id(event.getOperationId() == 0 ? null : event.getOperationId())
+                                .accountId(event.getAccountId())
+                                .type(event.getType().name())
+                                .amount(event.getAmount())
+                                .balance(event.getBalance())
+                                .operationDate(OperationHistory.toDateTime(event.getTimestamp()))
+                                .build(), MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void gap(long from, long to) throws IOException {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(to))
+                        .name("gap")
+                        .data(Map.of("from", from, "to", to), MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void reset(long last) throws IOException {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(last))
+                        .name("reset")
+                        .data(Map.of("last", last), MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void keepAlive() throws IOException {
+                emitter.send(SseEmitter.event().comment(""));
+            }
+        });
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+        return emitter;
+    }
+}
@@ -0,0 +1,29 @@
+package com.banking.banking.controller;
+
+import com.banking.banking.entity.dto.ReconciliationDto;
+import com.banking.banking.service.ReconciliationService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@AllArgsConstructor
+@RestController
+@RequestMapping("/api")
+public class ReconciliationController {
+
+    private final ReconciliationService reconciliationService;
+
+    @PostMapping("/v1/admin/reconciliation")
+    public ResponseEntity<ReconciliationDto> reconcile() {
+        return ResponseEntity.ok(reconciliationService.reconcile());
+    }
+
+    @GetMapping("/v1/admin/reconciliation")
+    public ResponseEntity<ReconciliationDto> getLastReport() {
+        ReconciliationDto report = reconciliationService.getLastReport();
+        return report == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(report);
+    }
+}
@@ -0,0 +1,41 @@
+package com.banking.banking.controller;
+
+import com.banking.banking.entity.dto.TransferDto;
+import com.banking.banking.service.AdmissionControl;
+import com.banking.banking.service.IdempotencyCache;
+import com.banking.banking.service.OperationService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import static com.banking.banking.controller.OperationController.IDEMPOTENCY_KEY;
+
+@AllArgsConstructor
+@RestController
+@RequestMapping("/api")
+public class TransferController {
+
+    private static final String IDEMPOTENCY_SCOPE = "transfers:";
+
+    private final OperationService operationService;
+    private final IdempotencyCache idempotencyCache;
+    private final AdmissionControl admissionControl;
+
+    @PostMapping("/v1/transfers")
+    public ResponseEntity<TransferDto> createTransfer(@RequestBody TransferDto transferDto,
+                                                      @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        Supplier<TransferDto> process = () -> admissionControl.execute(transferDto.getFromAccountId(),
+                () -> operationService.transfer(transferDto));
+        TransferDto transfer = idempotencyKey == null
+                ? process.get()
+                : idempotencyCache.execute(IDEMPOTENCY_SCOPE + idempotencyKey,
+                Objects.hash(transferDto.getFromAccountId(), transferDto.getToAccountId(), transferDto.getAmount()), process);
+        final URI location = ServletUriComponentsBuilder.fromCurrentServletMapping().path("/api/v1/transfers").build().toUri();
+        return ResponseEntity.created(location).body(transfer);
+    }
+}
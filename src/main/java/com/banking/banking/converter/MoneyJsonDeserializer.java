@@ -0,0 +1,27 @@
+package com.banking.banking.converter;
+
+import com.banking.banking.entity.Money;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+
+public class MoneyJsonDeserializer extends JsonDeserializer<Long> {
+
+    @Override
+    public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return Money.ofUnits(parser.getLongValue());
+        }
+        if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return Money.of(parser.getDecimalValue());
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            return Money.of(parser.getText().trim());
+        }
+        return (Long) context.handleUnexpectedToken(Long.class, parser);
+    }
+}
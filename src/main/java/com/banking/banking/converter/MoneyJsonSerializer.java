@@ -0,0 +1,16 @@
+package com.banking.banking.converter;
+
+import com.banking.banking.entity.Money;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+public class MoneyJsonSerializer extends JsonSerializer<Long> {
+
+    @Override
+    public void serialize(Long amount, JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        generator.writeNumber(Money.format(amount));
+    }
+}
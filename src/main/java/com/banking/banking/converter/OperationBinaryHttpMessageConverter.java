@@ -0,0 +1,289 @@
+package com.banking.banking.converter;
+
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.entity.OperationSlice;
+import com.banking.banking.entity.dto.OperationDto;
+import com.banking.banking.entity.dto.OperationResultDto;
+import com.banking.banking.entity.enums.OperationType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding of {@link OperationDto} and {@code List<OperationDto>}, served as
+ * {@value #MEDIA_TYPE_VALUE} to clients that ask for it. Every operation is a fixed
+ * {@value #RECORD_SIZE}-byte big-endian record: a presence mask, the type ordinal, then id, account id,
+ * amount and balance in minor units and the operation date in epoch millis UTC. A list is a 4-byte
+ * count followed by its records; an {@link OperationSlice} is written as the list of its operations,
+ * read straight from the history.
+ * <p>
+ * Batch results, {@code List<OperationResultDto>}, are a 4-byte count followed by one entry per result:
+ * the item index as an int, a flags byte (success, operation present, message present), the operation
+ * record if present, then the message as an int length and its UTF-8 bytes if present.
+ */
+public class OperationBinaryHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-banking-operation";
+    public static final MediaType MEDIA_TYPE = MediaType.valueOf(MEDIA_TYPE_VALUE);
+    public static final int RECORD_SIZE = 42;
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_ACCOUNT_ID = 1 << 1;
+    private static final int HAS_TYPE = 1 << 2;
+    private static final int HAS_DATE = 1 << 3;
+    private static final int SUCCESS = 1;
+    private static final int HAS_OPERATION = 1 << 1;
+    private static final int HAS_MESSAGE = 1 << 2;
+    private static final OperationType[] TYPES = OperationType.values();
+
+    public OperationBinaryHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == OperationDto.class;
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return (type == OperationDto.class || isOperationList(type)) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return (clazz == OperationDto.class || clazz == OperationSlice.class || isOperationList(type) || isResultList(type))
+                && canWrite(mediaType);
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        // lists are only recognized from their generic type, checked in canRead and canWrite
+        return clazz == OperationDto.class || clazz == OperationSlice.class || List.class.isAssignableFrom(clazz)
+                ? getSupportedMediaTypes() : List.of();
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(OperationDto.class, null, inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        byte[] bytes = inputMessage.getBody().readAllBytes();
+        try {
+            return type == OperationDto.class ? decode(bytes) : decodeList(bytes);
+        } catch (IllegalArgumentException exception) {
+            throw new HttpMessageNotReadableException(exception.getMessage(), exception, inputMessage);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object value, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        if (value instanceof OperationSlice slice) {
+            outputMessage.getBody().write(encode(slice));
+            return;
+        }
+        if (isResultList(type) || value instanceof List<?> list && !list.isEmpty() && list.get(0) instanceof OperationResultDto) {
+            outputMessage.getBody().write(encodeResults((List<OperationResultDto>) value));
+            return;
+        }
+        outputMessage.getBody().write(value instanceof OperationDto operation
+                ? encode(operation)
+                : encode((List<OperationDto>) value));
+    }
+
+    @Override
+    protected Long getContentLength(Object value, @Nullable MediaType contentType) {
+        if (value instanceof OperationSlice slice) {
+            return Integer.BYTES + (long) slice.count() * RECORD_SIZE;
+        }
+        if (value instanceof List<?> list && !list.isEmpty() && list.get(0) instanceof OperationResultDto) {
+            return null;
+        }
+        return value instanceof List<?> operations ? Integer.BYTES + (long) operations.size() * RECORD_SIZE : RECORD_SIZE;
+    }
+
+    public static byte[] encode(OperationDto operation) {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        put(buffer, operation);
+        return buffer.array();
+    }
+
+    public static byte[] encode(List<OperationDto> operations) {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + operations.size() * RECORD_SIZE);
+        buffer.putInt(operations.size());
+        for (OperationDto operation : operations) {
+            put(buffer, operation);
+        }
+        return buffer.array();
+    }
+
+    public static byte[] encode(OperationSlice slice) {
+        OperationHistory history = slice.getHistory();
+        Long accountId = slice.getAccountId();
+        int count = slice.count();
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + count * RECORD_SIZE);
+        buffer.putInt(count);
+        for (int i = slice.getFrom(); i < slice.getTo(); i++) {
+            if (slice.includes(i)) {
+                long id = history.id(i);
+                put(buffer, (id != 0 ? HAS_ID : 0) | (accountId != null ? HAS_ACCOUNT_ID : 0) | HAS_TYPE | HAS_DATE,
+                        history.type(i).ordinal(), id, accountId != null ? accountId : 0,
+                        history.amount(i), 0, history.timestamp(i));
+            }
+        }
+        return buffer.array();
+    }
+
+    public static byte[] encodeResults(List<OperationResultDto> results) {
+        byte[][] messages = new byte[results.size()][];
+        int size = Integer.BYTES;
+        for (int i = 0; i < results.size(); i++) {
+            OperationResultDto result = results.get(i);
+            size += Integer.BYTES + 1 + (result.getOperation() != null ? RECORD_SIZE : 0);
+            if (result.getMessage() != null) {
+                messages[i] = result.getMessage().getBytes(StandardCharsets.UTF_8);
+                size += Integer.BYTES + messages[i].length;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            OperationResultDto result = results.get(i);
+            buffer.putInt(result.getIndex());
+            buffer.put((byte) ((result.isSuccess() ? SUCCESS : 0)
+                    | (result.getOperation() != null ? HAS_OPERATION : 0)
+                    | (messages[i] != null ? HAS_MESSAGE : 0)));
+            if (result.getOperation() != null) {
+                put(buffer, result.getOperation());
+            }
+            if (messages[i] != null) {
+                buffer.putInt(messages[i].length);
+                buffer.put(messages[i]);
+            }
+        }
+        return buffer.array();
+    }
+
+    public static List<OperationResultDto> decodeResults(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            int count = buffer.getInt();
+            if (count < 0 || count > bytes.length) {
+                throw new IllegalArgumentException("Malformed result list of " + bytes.length + " bytes");
+            }
+            List<OperationResultDto> results = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int index = buffer.getInt();
+                int flags = buffer.get();
+                OperationDto operation = (flags & HAS_OPERATION) != 0 ? get(buffer) : null;
+                String message = null;
+                if ((flags & HAS_MESSAGE) != 0) {
+                    byte[] text = new byte[buffer.getInt()];
+                    buffer.get(text);
+                    message = new String(text, StandardCharsets.UTF_8);
+                }
+                results.add(new OperationResultDto(index, (flags & SUCCESS) != 0, operation, message, null));
+            }
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Malformed result list of " + bytes.length + " bytes");
+            }
+            return results;
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            throw new IllegalArgumentException("Malformed result list of " + bytes.length + " bytes", e);
+        }
+    }
+
+    public static OperationDto decode(byte[] bytes) {
+        if (bytes.length != RECORD_SIZE) {
+            throw new IllegalArgumentException("Expected " + RECORD_SIZE + " bytes but got " + bytes.length);
+        }
+        return get(ByteBuffer.wrap(bytes));
+    }
+
+    public static List<OperationDto> decodeList(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int count = bytes.length < Integer.BYTES ? -1 : buffer.getInt();
+        if (count < 0 || bytes.length != Integer.BYTES + (long) count * RECORD_SIZE) {
+            throw new IllegalArgumentException("Malformed operation list of " + bytes.length + " bytes");
+        }
+        List<OperationDto> operations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            operations.add(get(buffer));
+        }
+        return operations;
+    }
+
+    private static void put(ByteBuffer buffer, OperationDto operation) {
+        int mask = (operation.getId() != null ? HAS_ID : 0)
+                | (operation.getAccountId() != null ? HAS_ACCOUNT_ID : 0)
+                | (operation.getType() != null ? HAS_TYPE : 0)
+                | (operation.getOperationDate() != null ? HAS_DATE : 0);
+        put(buffer, mask,
+                operation.getType() != null ? OperationType.valueOf(operation.getType()).ordinal() : 0,
+                operation.getId() != null ? operation.getId() : 0,
+                operation.getAccountId() != null ? operation.getAccountId() : 0,
+                operation.getAmount(),
+                operation.getBalance(),
+                operation.getOperationDate() != null ? OperationHistory.toEpochMillis(operation.getOperationDate()) : 0);
+    }
+
+    private static void put(ByteBuffer buffer, int mask, int type, long id, long accountId, long amount, long balance, long date) {
+        buffer.put((byte) mask);
+        buffer.put((byte) type);
+        buffer.putLong(id);
+        buffer.putLong(accountId);
+        buffer.putLong(amount);
+        buffer.putLong(balance);
+        buffer.putLong(date);
+    }
+
+    private static OperationDto get(ByteBuffer buffer) {
+        int mask = buffer.get();
+        int type = buffer.get();
+        long id = buffer.getLong();
+        long accountId = buffer.getLong();
+        long amount = buffer.getLong();
+        long balance = buffer.getLong();
+        long date = buffer.getLong();
+        if ((mask & HAS_TYPE) != 0 && (type < 0 || type >= TYPES.length)) {
+            throw new IllegalArgumentException("Unknown operation type " + type);
+        }
+        return OperationDto.builder()
+                .id((mask & HAS_ID) != 0 ? id : null)
+                .accountId((mask & HAS_ACCOUNT_ID) != 0 ? accountId : null)
+                .type((mask & HAS_TYPE) != 0 ? TYPES[type].name() : null)
+                .amount(amount)
+                .balance(balance)
+                .operationDate((mask & HAS_DATE) != 0 ? OperationHistory.toDateTime(date) : null)
+                .build();
+    }
+
+    private static boolean isOperationList(@Nullable Type type) {
+        return isListOf(type, OperationDto.class);
+    }
+
+    private static boolean isResultList(@Nullable Type type) {
+        return isListOf(type, OperationResultDto.class);
+    }
+
+    private static boolean isListOf(@Nullable Type type, Class<?> elementType) {
+        return type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() == List.class
+                && parameterized.getActualTypeArguments()[0] == elementType;
+    }
+}
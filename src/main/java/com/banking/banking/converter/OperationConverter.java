@@ -5,7 +5,6 @@ import com.banking.banking.entity.Operation;
 import com.banking.banking.entity.dto.OperationDto;
 import com.banking.banking.entity.enums.OperationType;
 
-import java.time.LocalDateTime;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -19,7 +18,6 @@ public class OperationConverter {
         return Operation.builder()
                 .type(OperationType.valueOf(operation.getType()))
                 .amount(operation.getAmount())
-                .operationDate(LocalDateTime.now())
                 .build();
 
     }
@@ -1,12 +1,9 @@
 package com.banking.banking.converter;
 
-import com.banking.banking.entity.Account;
 import com.banking.banking.entity.Operation;
 import com.banking.banking.entity.dto.OperationDto;
 
-import java.time.LocalDateTime;
 import java.util.Objects;
-import java.util.Optional;
 
 public class OperationDtoConverter {
 
@@ -18,8 +15,8 @@ public class OperationDtoConverter {
                 .id(operation.getId())
                 .type(operation.getType().name())
                 .amount(operation.getAmount())
-                .operationDate(LocalDateTime.now())
-                .balance(Optional.ofNullable(operation.getAccount()).map(Account::getId).orElse(null))
+                .operationDate(operation.getOperationDate())
+                .accountId(operation.getAccountId())
                 .build();
 
     }
@@ -0,0 +1,209 @@
+package com.banking.banking.converter;
+
+import com.banking.banking.entity.Money;
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.entity.OperationSlice;
+import com.banking.banking.entity.dto.OperationDto;
+import com.banking.banking.entity.enums.OperationType;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Writes an {@link OperationSlice} as the same JSON array Jackson writes for the matching
+ * {@link OperationDto} list, walking the history columns straight into a {@link JsonGenerator}: no
+ * operation, DTO, date or string is created per entry. Field names and type names are pre-encoded,
+ * amounts and times are formatted into two scratch buffers per response, and the date part is only
+ * rebuilt when the day changes, which along a time-sorted history is rare.
+ */
+public class OperationSliceJsonHttpMessageConverter extends AbstractHttpMessageConverter<OperationSlice> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString BALANCE = new SerializedString("balance");
+    private static final SerializableString TYPE = new SerializedString("type");
+    private static final SerializableString AMOUNT = new SerializedString("amount");
+    private static final SerializableString OPERATION_DATE = new SerializedString("operationDate");
+    private static final SerializableString ACCOUNT_ID = new SerializedString("accountId");
+    private static final SerializableString[] TYPE_NAMES = new SerializableString[OperationType.values().length];
+    // history entries carry no balance
+    private static final String NO_BALANCE = Money.format(0);
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    static {
+        for (OperationType type : OperationType.values()) {
+            TYPE_NAMES[type.ordinal()] = new SerializedString(type.name());
+        }
+    }
+
+    private final JsonFactory factory;
+
+    public OperationSliceJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.factory = objectMapper.getFactory();
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == OperationSlice.class;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected OperationSlice readInternal(Class<? extends OperationSlice> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Operation slices are only written", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(OperationSlice slice, HttpOutputMessage outputMessage) throws IOException {
+        try (JsonGenerator generator = factory.createGenerator(StreamUtils.nonClosing(outputMessage.getBody()), JsonEncoding.UTF8)) {
+            write(slice, generator);
+        }
+    }
+
+    public static void write(OperationSlice slice, JsonGenerator generator) throws IOException {
+        OperationHistory history = slice.getHistory();
+        Long accountId = slice.getAccountId();
+        Scratch scratch = new Scratch();
+        generator.writeStartArray();
+        for (int i = slice.getFrom(); i < slice.getTo(); i++) {
+            if (!slice.includes(i)) {
+                continue;
+            }
+            generator.writeStartObject();
+            generator.writeFieldName(ID);
+            long id = history.id(i);
+            if (id == 0) {
+                generator.writeNull();
+            } else {
+                generator.writeString(scratch.number, 0, scratch.id(id));
+            }
+            generator.writeFieldName(BALANCE);
+            generator.writeNumber(NO_BALANCE);
+            generator.writeFieldName(TYPE);
+            generator.writeString(TYPE_NAMES[history.type(i).ordinal()]);
+            generator.writeFieldName(AMOUNT);
+            long amount = history.amount(i);
+            if (amount == Long.MIN_VALUE) {
+                generator.writeNumber(Money.format(amount));
+            } else {
+                generator.writeNumber(scratch.number, 0, scratch.money(amount));
+            }
+            generator.writeFieldName(OPERATION_DATE);
+            generator.writeString(scratch.date, 0, scratch.dateTime(history.timestamp(i)));
+            generator.writeFieldName(ACCOUNT_ID);
+            if (accountId == null) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(accountId);
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private static final class Scratch {
+        final char[] number = new char[24];
+        final char[] date = new char[40];
+        long day = Long.MIN_VALUE;
+        int dayLength;
+
+        /**
+         * Same text as {@link Long#toString} for a positive id, which {@link OperationDto} sends as a string.
+         */
+        int id(long id) {
+            int length = digits(id);
+            int position = length;
+            do {
+                number[--position] = (char) ('0' + id % 10);
+                id /= 10;
+            } while (id != 0);
+            return length;
+        }
+
+        /**
+         * Same text as {@link Money#format}: the sign, the units, then exactly two decimals.
+         */
+        int money(long amount) {
+            long units = Math.abs(amount) / Money.MINOR_UNITS_PER_UNIT;
+            int cents = (int) (Math.abs(amount) % Money.MINOR_UNITS_PER_UNIT);
+            int length = (amount < 0 ? 1 : 0) + digits(units) + 3;
+            int position = length;
+            number[--position] = (char) ('0' + cents % 10);
+            number[--position] = (char) ('0' + cents / 10);
+            number[--position] = '.';
+            do {
+                number[--position] = (char) ('0' + units % 10);
+                units /= 10;
+            } while (units != 0);
+            if (amount < 0) {
+                number[0] = '-';
+            }
+            return length;
+        }
+
+        /**
+         * Same text as {@link java.time.format.DateTimeFormatter#ISO_LOCAL_DATE_TIME} for the UTC time
+         * of the timestamp: seconds always, milliseconds without trailing zeros and only when non-zero.
+         */
+        int dateTime(long epochMillis) {
+            long day = Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+            if (day != this.day) {
+                String text = LocalDate.ofEpochDay(day).toString();
+                text.getChars(0, text.length(), date, 0);
+                date[text.length()] = 'T';
+                this.day = day;
+                this.dayLength = text.length() + 1;
+            }
+            int millis = (int) Math.floorMod(epochMillis, MILLIS_PER_DAY);
+            int position = dayLength;
+            position = twoDigits(position, millis / 3_600_000);
+            date[position++] = ':';
+            position = twoDigits(position, millis / 60_000 % 60);
+            date[position++] = ':';
+            position = twoDigits(position, millis / 1000 % 60);
+            int fraction = millis % 1000;
+            if (fraction != 0) {
+                date[position++] = '.';
+                date[position++] = (char) ('0' + fraction / 100);
+                date[position++] = (char) ('0' + fraction / 10 % 10);
+                date[position++] = (char) ('0' + fraction % 10);
+                while (date[position - 1] == '0') {
+                    position--;
+                }
+            }
+            return position;
+        }
+
+        private int twoDigits(int position, int value) {
+            date[position] = (char) ('0' + value / 10);
+            date[position + 1] = (char) ('0' + value % 10);
+            return position + 2;
+        }
+
+        private static int digits(long value) {
+            int digits = 1;
+            while (value >= 10) {
+                value /= 10;
+                digits++;
+            }
+            return digits;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.banking.banking.engine;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs account mutations with exclusive access to the account, so that a balance check and the
+ * matching update happen as one atomic step.
+ */
+public interface AccountEngine {
+
+    <T> T execute(Long accountId, Supplier<T> action);
+
+    /**
+     * Runs an action with exclusive access to two accounts at once. Must not be called from inside
+     * another action.
+     */
+    <T> T execute(Long firstAccountId, Long secondAccountId, Supplier<T> action);
+
+    /**
+     * Number of mutations that had to wait for another one holding the same lock or shard.
+     */
+    long contentions();
+
+    static long spread(Long accountId) {
+        return accountId * 0x9E3779B97F4A7C15L;
+    }
+}
@@ -0,0 +1,165 @@
+package com.banking.banking.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Partitions accounts by id across single-threaded shards. Every mutation of an account runs on the
+ * thread of its owning shard, so account data is only ever touched by one thread and needs no lock.
+ * Callers hand their action to the shard through a bounded queue and wait on a future for the result;
+ * a full queue blocks the caller. Once the engine is closed, submissions are refused and the tasks still
+ * queued fail instead of leaving their callers waiting.
+ */
+public class ShardedAccountEngine implements AccountEngine, AutoCloseable {
+
+    private final Shard[] shards;
+    private final LongAdder contentions = new LongAdder();
+
+    public ShardedAccountEngine(int shardCount, int queueCapacity) {
+        if (shardCount < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Shard count and queue capacity must be positive");
+        }
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, queueCapacity);
+        }
+    }
+
+    @Override
+    public <T> T execute(Long accountId, Supplier<T> action) {
+        Shard shard = shards[shardOf(accountId)];
+        if (Thread.currentThread() == shard.thread) {
+            return action.get();
+        }
+        Task<T> task = new Task<>(action);
+        if (!shard.queue.isEmpty()) {
+            contentions.increment();
+        }
+        shard.submit(task);
+        try {
+            return task.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the action on the thread of the higher shard while the lower shard's thread waits for it.
+     * A shard thread only ever waits on a higher shard, so opposing calls can never deadlock.
+     */
+    @Override
+    public <T> T execute(Long firstAccountId, Long secondAccountId, Supplier<T> action) {
+        int first = shardOf(firstAccountId);
+        int second = shardOf(secondAccountId);
+        if (first == second) {
+            return execute(firstAccountId, action);
+        }
+        Long lower = first < second ? firstAccountId : secondAccountId;
+        Long higher = first < second ? secondAccountId : firstAccountId;
+        return execute(lower, () -> execute(higher, action));
+    }
+
+    @Override
+    public long contentions() {
+        return contentions.sum();
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    int shardOf(Long accountId) {
+        return (int) ((AccountEngine.spread(accountId) >>> 32) % shards.length);
+    }
+
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.close();
+        }
+    }
+
+    private static final class Task<T> extends CompletableFuture<T> implements Runnable {
+        private final Supplier<T> action;
+
+        Task(Supplier<T> action) {
+            this.action = action;
+        }
+
+        @Override
+        public void run() {
+            try {
+                complete(action.get());
+            } catch (Throwable e) {
+                completeExceptionally(e);
+            }
+        }
+    }
+
+    private static final class Shard implements Runnable {
+        private final BlockingQueue<Task<?>> queue;
+        private final Thread thread;
+        private volatile boolean closed;
+
+        Shard(int index, int queueCapacity) {
+            queue = new ArrayBlockingQueue<>(queueCapacity);
+            thread = new Thread(this, "account-shard-" + index);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void submit(Task<?> task) {
+            if (closed) {
+                throw new RejectedExecutionException(thread.getName() + " is closed");
+            }
+            try {
+                queue.put(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while submitting to " + thread.getName(), e);
+            }
+            // closed while this was being queued: nobody will take it
+            if (closed) {
+                failQueued();
+            }
+        }
+
+        void close() {
+            closed = true;
+            thread.interrupt();
+            failQueued();
+        }
+
+        private void failQueued() {
+            List<Task<?>> pending = new ArrayList<>();
+            queue.drainTo(pending);
+            for (Task<?> task : pending) {
+                task.completeExceptionally(new RejectedExecutionException(thread.getName() + " is closed"));
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    queue.take().run();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
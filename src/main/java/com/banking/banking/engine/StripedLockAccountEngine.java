@@ -0,0 +1,78 @@
+package com.banking.banking.engine;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Runs account mutations on the caller's thread under a lock stripe of the account. Accounts are mapped
+ * onto a fixed set of stripes: unrelated accounts almost never share a lock, and no global lock is ever
+ * taken.
+ */
+public class StripedLockAccountEngine implements AccountEngine {
+
+    static final int STRIPES = 1024;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final LongAdder contentions = new LongAdder();
+
+    public StripedLockAccountEngine() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public <T> T execute(Long accountId, Supplier<T> action) {
+        ReentrantLock lock = locks[stripe(accountId)];
+        lock(lock);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes both stripes in stripe order, which every caller agrees on, so opposing calls can never
+     * deadlock. Ordering by account id would not be enough: two accounts can map to stripes in the
+     * opposite order.
+     */
+    @Override
+    public <T> T execute(Long firstAccountId, Long secondAccountId, Supplier<T> action) {
+        int first = stripe(firstAccountId);
+        int second = stripe(secondAccountId);
+        if (first == second) {
+            return execute(firstAccountId, action);
+        }
+        ReentrantLock lower = locks[Math.min(first, second)];
+        ReentrantLock higher = locks[Math.max(first, second)];
+        lock(lower);
+        try {
+            lock(higher);
+            try {
+                return action.get();
+            } finally {
+                higher.unlock();
+            }
+        } finally {
+            lower.unlock();
+        }
+    }
+
+    private void lock(ReentrantLock lock) {
+        if (!lock.tryLock()) {
+            contentions.increment();
+            lock.lock();
+        }
+    }
+
+    @Override
+    public long contentions() {
+        return contentions.sum();
+    }
+
+    static int stripe(Long accountId) {
+        return (int) (AccountEngine.spread(accountId) >>> 54) & (STRIPES - 1);
+    }
+}
@@ -1,9 +1,8 @@
 package com.banking.banking.entity;
 
+import com.banking.banking.entity.enums.OperationType;
 import lombok.*;
 
-import java.util.List;
-
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
@@ -12,6 +11,49 @@ import java.util.List;
 public class Account {
 
     private Long id;
-    private List<Operation> operations;
-    private double balance;
+    private OperationHistory history;
+    private volatile long balance;
+    /**
+     * Balance before the first operation of the history, so that the balance always equals it plus the
+     * net amount of the history.
+     */
+    private long openingBalance;
+    /**
+     * Null until the account has an operation.
+     */
+    private AccountSummary summary;
+    /**
+     * Number of operations applied since the account was loaded; bumped after the balance and history,
+     * so a reader that sees a version also sees everything it covers.
+     */
+    private volatile long version;
+    /**
+     * History size when the account was loaded: whenever no operation is being applied, the history
+     * holds this many operations plus one per version.
+     */
+    private long loadedOperations;
+
+    public long apply(Operation operation) {
+        return apply(operation.getId() == null ? 0 : operation.getId(),
+                operation.getType(),
+                operation.getAmount(),
+                OperationHistory.toEpochMillis(operation.getOperationDate()));
+    }
+
+    public long apply(long id, OperationType type, long amount, long timestamp) {
+        long previous = balance;
+        long updated = type == OperationType.WITHDRAW ? Money.subtract(previous, amount) : Money.add(previous, amount);
+        history.append(id, type, amount, timestamp);
+        if (summary == null) {
+            summary = new AccountSummary(previous);
+        }
+        summary.record(type, amount, previous, updated, timestamp);
+        balance = updated;
+        version++;
+        return updated;
+    }
+
+    public Operation getOperation(int index) {
+        return history.get(index, id);
+    }
 }
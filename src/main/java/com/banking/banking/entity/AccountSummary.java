@@ -0,0 +1,102 @@
+package com.banking.banking.entity;
+
+import com.banking.banking.entity.enums.OperationType;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Running aggregates of an account's operations, all-time and per calendar month (UTC), updated with
+ * every applied operation so that they never have to be recomputed from the history. Operations arrive
+ * in time order, so months are only ever appended and the current one is always the last.
+ * <p>
+ * Written by the account's single writer under its engine lock; read it under the same lock.
+ */
+@Getter
+public class AccountSummary {
+
+    private final Totals allTime;
+    private final List<Totals> months = new ArrayList<>();
+    private long monthEnd = Long.MIN_VALUE;
+
+    public AccountSummary(long openingBalance) {
+        this.allTime = new Totals(null, openingBalance);
+    }
+
+    /**
+     * Rebuilds the summary of a history whose first operation was applied to {@code openingBalance}.
+     */
+    public static AccountSummary of(long openingBalance, OperationHistory history) {
+        AccountSummary summary = new AccountSummary(openingBalance);
+        long balance = openingBalance;
+        for (int i = 0; i < history.size(); i++) {
+            long updated = balance + OperationHistory.signedAmount(history.type(i), history.amount(i));
+            summary.record(history.type(i), history.amount(i), balance, updated, history.timestamp(i));
+            balance = updated;
+        }
+        return summary;
+    }
+
+    /**
+     * Adds one operation, {@code amount} being signed for transfers as in the history.
+     */
+    public void record(OperationType type, long amount, long previousBalance, long balance, long timestamp) {
+        timestamp = Math.max(timestamp, allTime.lastTimestamp);
+        if (timestamp >= monthEnd) {
+            YearMonth month = YearMonth.from(Instant.ofEpochMilli(timestamp).atOffset(ZoneOffset.UTC));
+            months.add(new Totals(month, previousBalance));
+            monthEnd = month.plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        }
+        allTime.add(type, amount, balance, timestamp);
+        months.get(months.size() - 1).add(type, amount, balance, timestamp);
+    }
+
+    public List<Totals> getMonths() {
+        return Collections.unmodifiableList(months);
+    }
+
+    @Getter
+    public static class Totals {
+        /**
+         * Null for the all-time totals.
+         */
+        private final YearMonth month;
+        private long operations;
+        private long deposits;
+        private long withdrawals;
+        private long transfersIn;
+        private long transfersOut;
+        private long minBalance;
+        private long maxBalance;
+        private long lastTimestamp = Long.MIN_VALUE;
+
+        Totals(YearMonth month, long openingBalance) {
+            this.month = month;
+            this.minBalance = openingBalance;
+            this.maxBalance = openingBalance;
+        }
+
+        void add(OperationType type, long amount, long balance, long timestamp) {
+            operations++;
+            switch (type) {
+                case DEPOSIT -> deposits += amount;
+                case WITHDRAW -> withdrawals += amount;
+                case TRANSFER -> {
+                    if (amount < 0) {
+                        transfersOut -= amount;
+                    } else {
+                        transfersIn += amount;
+                    }
+                }
+            }
+            minBalance = Math.min(minBalance, balance);
+            maxBalance = Math.max(maxBalance, balance);
+            lastTimestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.banking.banking.entity;
+
+import java.math.BigDecimal;
+
+/**
+ * Money amounts are plain {@code long}s counting minor units (cents) of the account currency, so that
+ * arithmetic on the hot path is exact and never allocates. Conversions from and to decimals only
+ * happen at the API edge.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+    public static final long MINOR_UNITS_PER_UNIT = 100;
+
+    private Money() {
+    }
+
+    public static long of(String amount) {
+        try {
+            return of(new BigDecimal(amount));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + amount, e);
+        }
+    }
+
+    public static long of(BigDecimal amount) {
+        try {
+            return amount.setScale(SCALE).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount must be a number with at most " + SCALE + " decimals: " + amount, e);
+        }
+    }
+
+    public static long ofUnits(long units) {
+        return Math.multiplyExact(units, MINOR_UNITS_PER_UNIT);
+    }
+
+    public static long add(long amount, long other) {
+        return Math.addExact(amount, other);
+    }
+
+    public static long subtract(long amount, long other) {
+        return Math.subtractExact(amount, other);
+    }
+
+    public static BigDecimal toBigDecimal(long amount) {
+        return BigDecimal.valueOf(amount, SCALE);
+    }
+
+    public static String format(long amount) {
+        return toBigDecimal(amount).toPlainString();
+    }
+}
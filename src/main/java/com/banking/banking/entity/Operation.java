@@ -13,8 +13,8 @@ import java.time.LocalDateTime;
 public class Operation {
 
     private Long id;
-    private Account account;
+    private Long accountId;
     private OperationType type;
-    private double amount;
+    private long amount;
     private LocalDateTime operationDate;
 }
@@ -0,0 +1,327 @@
+package com.banking.banking.entity;
+
+import com.banking.banking.entity.enums.OperationType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Append-only operation history of one account, stored as primitive columns instead of
+ * {@link Operation} objects: ids, amounts in minor units, epoch-millis timestamps and type codes,
+ * about 25 bytes per operation.
+ * <p>
+ * Columns are split into chunks of {@value #CHUNK_SIZE} operations. The first chunk starts small and
+ * doubles until it is full, later chunks are allocated at full size, so small accounts stay cheap and
+ * large ones never copy more than one chunk. A single writer, holding the account's engine lock,
+ * appends; readers never lock and see every operation below {@link #size()}.
+ * <p>
+ * Every {@value #CHECKPOINT_INTERVAL} operations the running net amount is checkpointed, so the net
+ * effect of any prefix, and with it the balance at any point in time, is found by reading at most
+ * {@value #CHECKPOINT_INTERVAL} entries. Timestamps never decrease, which keeps the history sorted by
+ * time and searchable.
+ * <p>
+ * Only the most recent {@code hotOperations} operations, rounded up to whole chunks, stay on the heap.
+ * Once a chunk falls out of that window it is sealed: copied into one immutable off-heap buffer and
+ * its arrays dropped, so heap use per account is bounded while reads stay transparent.
+ */
+public class OperationHistory {
+
+    static final int CHUNK_BITS = 12;
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int INITIAL_CAPACITY = 8;
+    static final int CHECKPOINT_BITS = 6;
+    static final int CHECKPOINT_INTERVAL = 1 << CHECKPOINT_BITS;
+
+    private static final OperationType[] TYPES = OperationType.values();
+    private static final Chunk[] NO_CHUNKS = new Chunk[0];
+
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    private final int hotChunks;
+    private volatile Chunk[] chunks = NO_CHUNKS;
+    private volatile int size;
+    private long net;
+    private long lastTimestamp = Long.MIN_VALUE;
+
+    public OperationHistory() {
+        this(UNBOUNDED);
+    }
+
+    public OperationHistory(int hotOperations) {
+        if (hotOperations < 0) {
+            throw new IllegalArgumentException("Hot operations must not be negative");
+        }
+        this.hotChunks = (int) ((hotOperations + (long) CHUNK_MASK) >>> CHUNK_BITS);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void append(long id, OperationType type, long amount, long timestamp) {
+        int index = size;
+        int chunkIndex = index >>> CHUNK_BITS;
+        int offset = index & CHUNK_MASK;
+        Chunk[] current = chunks;
+        if (chunkIndex == current.length || current[chunkIndex] == null) {
+            if (chunkIndex == current.length) {
+                current = Arrays.copyOf(current, Math.max(1, current.length * 2));
+            }
+            current[chunkIndex] = new HeapChunk(chunkIndex == 0 ? INITIAL_CAPACITY : CHUNK_SIZE);
+            // the chunk leaving the hot window is full and no longer written
+            int cold = chunkIndex - hotChunks - 1;
+            if (cold >= 0) {
+                current[cold] = ((HeapChunk) current[cold]).seal();
+            }
+            chunks = current;
+        } else if (offset == ((HeapChunk) current[chunkIndex]).types.length) {
+            current[chunkIndex] = ((HeapChunk) current[chunkIndex]).grow();
+            chunks = current;
+        }
+        HeapChunk chunk = (HeapChunk) current[chunkIndex];
+        if ((offset & (CHECKPOINT_INTERVAL - 1)) == 0) {
+            chunk.checkpoints[offset >>> CHECKPOINT_BITS] = net;
+        }
+        lastTimestamp = Math.max(timestamp, lastTimestamp);
+        chunk.ids[offset] = id;
+        chunk.types[offset] = (byte) type.ordinal();
+        chunk.amounts[offset] = amount;
+        chunk.timestamps[offset] = lastTimestamp;
+        net += signedAmount(type, amount);
+        size = index + 1;
+    }
+
+    public long id(int index) {
+        return chunk(index).id(index & CHUNK_MASK);
+    }
+
+    public OperationType type(int index) {
+        return TYPES[chunk(index).type(index & CHUNK_MASK)];
+    }
+
+    public long amount(int index) {
+        return chunk(index).amount(index & CHUNK_MASK);
+    }
+
+    public long timestamp(int index) {
+        return chunk(index).timestamp(index & CHUNK_MASK);
+    }
+
+    /**
+     * Net amount of the first {@code count} operations: deposits and incoming transfers minus
+     * withdrawals and outgoing transfers.
+     */
+    public long netBefore(int count) {
+        if (count < 0 || count > size) {
+            throw new IndexOutOfBoundsException(count);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        // last checkpoint at or before the last counted operation, which is therefore already written
+        int checkpoint = (count - 1) & -CHECKPOINT_INTERVAL;
+        Chunk chunk = chunks[checkpoint >>> CHUNK_BITS];
+        long result = chunk.checkpoint((checkpoint & CHUNK_MASK) >>> CHECKPOINT_BITS);
+        for (int i = checkpoint; i < count; i++) {
+            result += signedAmount(type(i), amount(i));
+        }
+        return result;
+    }
+
+    /**
+     * Number of operations recorded at or before the given epoch-millis timestamp.
+     */
+    public int countUntil(long timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamp(mid) <= timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Number of operations whose id is at most the given one; ids increase along the history.
+     */
+    public int countUpToId(long id) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (id(mid) <= id) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public static long signedAmount(OperationType type, long amount) {
+        return type == OperationType.WITHDRAW ? -amount : amount;
+    }
+
+    /**
+     * Materializes one entry; only meant for the API edge.
+     */
+    public Operation get(int index, Long accountId) {
+        Chunk chunk = chunk(index);
+        int offset = index & CHUNK_MASK;
+        long id = chunk.id(offset);
+        return Operation.builder()
+                .id(id == 0 ? null : id)
+                .accountId(accountId)
+                .type(TYPES[chunk.type(offset)])
+                .amount(chunk.amount(offset))
+                .operationDate(toDateTime(chunk.timestamp(offset)))
+                .build();
+    }
+
+    private Chunk chunk(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return chunks[index >>> CHUNK_BITS];
+    }
+
+    public static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    public static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+
+    boolean isSealed(int chunkIndex) {
+        return chunks[chunkIndex] instanceof SealedChunk;
+    }
+
+    private abstract static class Chunk {
+        abstract long id(int offset);
+
+        abstract int type(int offset);
+
+        abstract long amount(int offset);
+
+        abstract long timestamp(int offset);
+
+        abstract long checkpoint(int index);
+    }
+
+    private static final class HeapChunk extends Chunk {
+        final long[] ids;
+        final byte[] types;
+        final long[] amounts;
+        final long[] timestamps;
+        final long[] checkpoints;
+
+        HeapChunk(int capacity) {
+            this(new long[capacity], new byte[capacity], new long[capacity], new long[capacity],
+                    new long[checkpoints(capacity)]);
+        }
+
+        private HeapChunk(long[] ids, byte[] types, long[] amounts, long[] timestamps, long[] checkpoints) {
+            this.ids = ids;
+            this.types = types;
+            this.amounts = amounts;
+            this.timestamps = timestamps;
+            this.checkpoints = checkpoints;
+        }
+
+        @Override
+        long id(int offset) {
+            return ids[offset];
+        }
+
+        @Override
+        int type(int offset) {
+            return types[offset];
+        }
+
+        @Override
+        long amount(int offset) {
+            return amounts[offset];
+        }
+
+        @Override
+        long timestamp(int offset) {
+            return timestamps[offset];
+        }
+
+        @Override
+        long checkpoint(int index) {
+            return checkpoints[index];
+        }
+
+        HeapChunk grow() {
+            int capacity = Math.min(types.length * 2, CHUNK_SIZE);
+            return new HeapChunk(Arrays.copyOf(ids, capacity), Arrays.copyOf(types, capacity),
+                    Arrays.copyOf(amounts, capacity), Arrays.copyOf(timestamps, capacity),
+                    Arrays.copyOf(checkpoints, checkpoints(capacity)));
+        }
+
+        SealedChunk seal() {
+            return new SealedChunk(this);
+        }
+
+        private static int checkpoints(int capacity) {
+            return (capacity + CHECKPOINT_INTERVAL - 1) >>> CHECKPOINT_BITS;
+        }
+    }
+
+    /**
+     * A full chunk copied into a single direct buffer, column after column: ids, amounts, timestamps,
+     * checkpoints, then one byte per type.
+     */
+    private static final class SealedChunk extends Chunk {
+        private static final int AMOUNTS = CHUNK_SIZE * Long.BYTES;
+        private static final int TIMESTAMPS = AMOUNTS * 2;
+        private static final int CHECKPOINTS = AMOUNTS * 3;
+        private static final int TYPE_CODES = CHECKPOINTS + (CHUNK_SIZE >>> CHECKPOINT_BITS) * Long.BYTES;
+        private static final int BYTES = TYPE_CODES + CHUNK_SIZE;
+
+        private final ByteBuffer buffer;
+
+        SealedChunk(HeapChunk chunk) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BYTES).order(ByteOrder.nativeOrder());
+            buffer.asLongBuffer().put(chunk.ids).put(chunk.amounts).put(chunk.timestamps).put(chunk.checkpoints);
+            buffer.put(TYPE_CODES, chunk.types);
+            this.buffer = buffer;
+        }
+
+        @Override
+        long id(int offset) {
+            return buffer.getLong(offset << 3);
+        }
+
+        @Override
+        int type(int offset) {
+            return buffer.get(TYPE_CODES + offset);
+        }
+
+        @Override
+        long amount(int offset) {
+            return buffer.getLong(AMOUNTS + (offset << 3));
+        }
+
+        @Override
+        long timestamp(int offset) {
+            return buffer.getLong(TIMESTAMPS + (offset << 3));
+        }
+
+        @Override
+        long checkpoint(int index) {
+            return buffer.getLong(CHECKPOINTS + (index << 3));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.banking.banking.entity;
+
+import com.banking.banking.entity.enums.OperationType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The operations of one account between two history positions, optionally of one type only. Nothing
+ * is copied: response writers read the operations straight from the history columns, and the bounds
+ * are fixed when the slice is taken, so operations appended meanwhile are left out.
+ */
+@AllArgsConstructor
+@Getter
+public class OperationSlice {
+
+    private final Long accountId;
+    private final OperationHistory history;
+    private final int from;
+    private final int to;
+    /**
+     * Null for all types.
+     */
+    private final OperationType type;
+
+    public boolean includes(int index) {
+        return type == null || history.type(index) == type;
+    }
+
+    public int count() {
+        if (type == null) {
+            return to - from;
+        }
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (history.type(i) == type) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -1,5 +1,9 @@
 package com.banking.banking.entity.dto;
 
+import com.banking.banking.converter.MoneyJsonDeserializer;
+import com.banking.banking.converter.MoneyJsonSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.*;
 
 import java.util.List;
@@ -13,5 +17,7 @@ import java.util.List;
 public class AccountDto {
     private Long id;
     private List<OperationDto> operations;
-    private double balance;
+    @JsonSerialize(using = MoneyJsonSerializer.class)
+    @JsonDeserialize(using = MoneyJsonDeserializer.class)
+    private long balance;
 }
@@ -0,0 +1,25 @@
+package com.banking.banking.entity.dto;
+
+import com.banking.banking.converter.MoneyJsonDeserializer;
+import com.banking.banking.converter.MoneyJsonSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.*;
+
+import java.util.List;
+
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class AccountSummaryDto {
+
+    private Long id;
+    @JsonSerialize(using = MoneyJsonSerializer.class)
+    @JsonDeserialize(using = MoneyJsonDeserializer.class)
+    private long balance;
+    private OperationTotalsDto allTime;
+    private List<OperationTotalsDto> months;
+}
@@ -0,0 +1,24 @@
+package com.banking.banking.entity.dto;
+
+import com.banking.banking.converter.MoneyJsonDeserializer;
+import com.banking.banking.converter.MoneyJsonSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class BalanceDto {
+
+    private Long accountId;
+    @JsonSerialize(using = MoneyJsonSerializer.class)
+    @JsonDeserialize(using = MoneyJsonDeserializer.class)
+    private long balance;
+    private LocalDateTime at;
+}
@@ -0,0 +1,22 @@
+package com.banking.banking.entity.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+@AllArgsConstructor
+@Getter
+public class ErrorDto {
+
+    private final String code;
+    @JsonIgnore
+    private final Throwable error;
+
+    /**
+     * Formatted from the exception only when the body is written.
+     */
+    public String getMessage() {
+        return error.getMessage();
+    }
+}
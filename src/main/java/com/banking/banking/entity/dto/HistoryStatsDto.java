@@ -0,0 +1,19 @@
+package com.banking.banking.entity.dto;
+
+import lombok.*;
+
+import java.util.Map;
+
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class HistoryStatsDto {
+
+    private long accounts;
+    private long operations;
+    private long maxOperations;
+    private Map<Long, Integer> largest;
+}
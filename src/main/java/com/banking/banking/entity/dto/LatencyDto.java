@@ -0,0 +1,22 @@
+package com.banking.banking.entity.dto;
+
+import lombok.*;
+
+/**
+ * Latency distribution in nanoseconds.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class LatencyDto {
+
+    private long count;
+    private long mean;
+    private long p50;
+    private long p90;
+    private long p99;
+    private long p999;
+    private long max;
+}
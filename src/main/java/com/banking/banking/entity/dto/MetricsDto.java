@@ -0,0 +1,19 @@
+package com.banking.banking.entity.dto;
+
+import lombok.*;
+
+import java.util.Map;
+
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class MetricsDto {
+
+    private Map<String, LatencyDto> latencies;
+    private Map<String, Long> rejections;
+    private long contentions;
+    private HistoryStatsDto histories;
+}
@@ -1,5 +1,10 @@
 package com.banking.banking.entity.dto;
 
+import com.banking.banking.converter.MoneyJsonDeserializer;
+import com.banking.banking.converter.MoneyJsonSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import lombok.*;
 
 import java.time.LocalDateTime;
@@ -12,10 +17,16 @@ import java.time.LocalDateTime;
 @Builder
 public class OperationDto {
 
+    // ids use all 63 bits, beyond what JSON numbers hold exactly in JavaScript
+    @JsonSerialize(using = ToStringSerializer.class)
     private Long id;
-    private double balance;
+    @JsonSerialize(using = MoneyJsonSerializer.class)
+    @JsonDeserialize(using = MoneyJsonDeserializer.class)
+    private long balance;
     private String type;
-    private double amount;
+    @JsonSerialize(using = MoneyJsonSerializer.class)
+    @JsonDeserialize(using = MoneyJsonDeserializer.class)
+    private long amount;
     private LocalDateTime operationDate;
     private Long accountId;
 }
@@ -0,0 +1,21 @@
+package com.banking.banking.entity.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.*;
+
+import java.util.List;
+
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class OperationPageDto {
+
+    private List<OperationDto> operations;
+    // ids use all 63 bits, beyond what JSON numbers hold exactly in JavaScript
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long nextCursor;
+}
@@ -0,0 +1,28 @@
+package com.banking.banking.entity.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class OperationResultDto {
+
+    private int index;
+    private boolean success;
+    private OperationDto operation;
+    private String message;
+    /**
+     * Failure of the item, whose message is only formatted when it is read, usually while the response
+     * is written.
+     */
+    @JsonIgnore
+    private Throwable error;
+
+    public String getMessage() {
+        return message == null && error != null ? error.getMessage() : message;
+    }
+}
@@ -0,0 +1,22 @@
+package com.banking.banking.entity.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class ReconciliationDto {
+
+    private long accounts;
+    private long operations;
+    private long drifted;
+    private long durationMillis;
+    private LocalDateTime completedAt;
+    private List<DriftDto> drifts;
+}
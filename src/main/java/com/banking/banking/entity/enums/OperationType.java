@@ -2,5 +2,9 @@ package com.banking.banking.entity.enums;
 
 public enum OperationType {
     WITHDRAW,
-    DEPOSIT
+    DEPOSIT,
+    /**
+     * One leg of a transfer between two accounts; the amount is negative on the debited account.
+     */
+    TRANSFER
 }
@@ -0,0 +1,22 @@
+package com.banking.banking.event;
+
+import com.banking.banking.entity.enums.OperationType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * An applied operation as published on the {@link OperationEventBus}. The sequence is assigned by the
+ * bus and orders events across all accounts.
+ */
+@AllArgsConstructor
+@Getter
+public class OperationEvent {
+
+    private final long sequence;
+    private final long accountId;
+    private final long operationId;
+    private final OperationType type;
+    private final long amount;
+    private final long balance;
+    private final long timestamp;
+}
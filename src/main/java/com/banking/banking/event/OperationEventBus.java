@@ -0,0 +1,289 @@
+package com.banking.banking.event;
+
+import com.banking.banking.config.BankingProperties;
+import com.banking.banking.entity.enums.OperationType;
+import com.banking.banking.exception.OverloadedException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.banking.banking.exception.Messages.TOO_MANY_SUBSCRIBERS;
+
+/**
+ * In-process stream of applied operations. Publishers claim a sequence number and store the event in a
+ * fixed ring, nothing else: they never wait for, or even see, subscribers.
+ * <p>
+ * Every subscriber reads the ring from its own cursor, polled every poll interval by a small scheduler
+ * shared by all subscribers, whose number is capped. The scheduler never writes to a client itself: it
+ * hands one write at a time per subscriber to a writer thread, and closes a subscriber whose write has not
+ * returned within the write timeout, so a client that stops reading holds up nobody else. One that falls more than the ring's capacity
+ * behind has lost the overwritten events; it is told so with a gap and resumes from the oldest event
+ * still held. The same applies to a subscriber resuming from an old sequence, and to an event whose
+ * publisher claimed a sequence but never stored it while later events were published.
+ * <p>
+ * Sequences are not kept across restarts, so each run starts past those of the previous ones: a subscriber
+ * resuming from an earlier run gets a gap from its sequence to the oldest event of this run still held,
+ * and one resuming from a sequence this run has not reached yet is reset to the next event.
+ */
+@Component
+public class OperationEventBus {
+
+    /**
+     * Poll intervals a claimed sequence may stay unstored before subscribers skip it.
+     */
+    private static final int STALL_POLLS = 100;
+    /**
+     * A run starts its sequences at its start time in milliseconds times 1024, past those of any earlier run
+     * that published less than 1024 events per millisecond on average.
+     */
+    private static final int RUN_SHIFT = 10;
+
+    private final AtomicReferenceArray<OperationEvent> ring;
+    private final int mask;
+    private final long start;
+    private final AtomicLong sequence;
+    private final long pollNanos;
+    private final long keepAliveNanos;
+    private final long stallNanos;
+    private final long writeTimeoutNanos;
+    private final int maxSubscribers;
+    private final Duration retryAfter;
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final ScheduledExecutorService dispatcher;
+    private final ExecutorService writers;
+
+    @Autowired
+    public OperationEventBus(BankingProperties properties) {
+        this(properties, System.currentTimeMillis() << RUN_SHIFT);
+    }
+
+    OperationEventBus(BankingProperties properties, long start) {
+        BankingProperties.Events events = properties.getEvents();
+        int capacity = Integer.highestOneBit(Math.max(2, events.getCapacity() * 2 - 1));
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.start = start;
+        this.sequence = new AtomicLong(start);
+        this.pollNanos = events.getPollInterval().toNanos();
+        this.keepAliveNanos = events.getKeepAlive().toNanos();
+        this.stallNanos = pollNanos * STALL_POLLS;
+        this.writeTimeoutNanos = events.getWriteTimeout().toNanos();
+        this.maxSubscribers = events.getMaxSubscribers();
+        this.retryAfter = properties.getAdmission().getRetryAfter();
+        this.dispatcher = Executors.newScheduledThreadPool(events.getDispatcherThreads(), daemon("operation-events"));
+        this.writers = Executors.newCachedThreadPool(daemon("operation-events-writer"));
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public void publish(long accountId, long operationId, OperationType type, long amount, long balance, long timestamp) {
+        long next = claim();
+        ring.set((int) next & mask, new OperationEvent(next, accountId, operationId, type, amount, balance, timestamp));
+    }
+
+    long claim() {
+        return sequence.incrementAndGet();
+    }
+
+    /**
+     * Sequence of the last published event.
+     */
+    public long lastSequence() {
+        return sequence.get();
+    }
+
+    /**
+     * Opens a subscription to the events of one account, or of all accounts when {@code accountId} is
+     * null, starting after {@code lastSequence}, or with the next event when it is null.
+     */
+    public Subscription open(Long accountId, Long lastSequence) {
+        long head = sequence.get();
+        if (lastSequence == null || lastSequence > head) {
+            return new Subscription(accountId, head + 1, lastSequence != null);
+        }
+        return new Subscription(accountId, Math.max(1, lastSequence + 1), false);
+    }
+
+    /**
+     * Opens a subscription and delivers it to the sink until the sink fails, does not return within the
+     * write timeout, or the subscription is closed.
+     *
+     * @throws OverloadedException when {@code banking.events.max-subscribers} streams are already open
+     */
+    public Subscription subscribe(Long accountId, Long lastSequence, Sink sink) {
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            throw new OverloadedException(TOO_MANY_SUBSCRIBERS, retryAfter);
+        }
+        Subscription subscription = open(accountId, lastSequence);
+        subscription.dispatch(sink);
+        return subscription;
+    }
+
+    @PreDestroy
+    void close() {
+        dispatcher.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    public interface Sink {
+        void event(OperationEvent event) throws IOException;
+
+        /**
+         * Events {@code from} to {@code to}, both inclusive, were overwritten before being read.
+         */
+        void gap(long from, long to) throws IOException;
+
+        /**
+         * The sequence resumed from was never published by this run, so what the subscriber missed is unknown;
+         * it gets the events after {@code last}.
+         */
+        void reset(long last) throws IOException;
+
+        void keepAlive() throws IOException;
+    }
+
+    public final class Subscription {
+        private final Long accountId;
+        private long cursor;
+        private boolean reset;
+        private long stalledCursor;
+        private long stalledSince;
+        private long idleSince;
+        private volatile boolean closed;
+        private ScheduledFuture<?> task;
+        private Future<?> write;
+        private long writeStarted;
+
+        private Subscription(Long accountId, long cursor, boolean reset) {
+            this.accountId = accountId;
+            this.cursor = cursor;
+            this.reset = reset;
+        }
+
+        /**
+         * Delivers every event published since the last call; returns false when there was none.
+         */
+        public boolean drain(Sink sink) throws IOException {
+            boolean delivered = false;
+            if (reset) {
+                sink.reset(cursor - 1);
+                reset = false;
+                delivered = true;
+            }
+            while (cursor <= sequence.get()) {
+                if (cursor <= start) {
+                    // resumed from an earlier run
+                    long oldest = Math.max(start + 1, sequence.get() - mask);
+                    sink.gap(cursor, oldest - 1);
+                    cursor = oldest;
+                    delivered = true;
+                    continue;
+                }
+                OperationEvent event = ring.get((int) cursor & mask);
+                if (event == null || event.getSequence() < cursor) {
+                    // claimed but not stored yet: wait for it, unless later events keep it waiting too long
+                    if (cursor < sequence.get() && stalled()) {
+                        sink.gap(cursor, cursor);
+                        cursor++;
+                        delivered = true;
+                        continue;
+                    }
+                    break;
+                }
+                if (event.getSequence() > cursor) {
+                    long oldest = sequence.get() - mask;
+                    sink.gap(cursor, oldest - 1);
+                    cursor = oldest;
+                    delivered = true;
+                    continue;
+                }
+                if (accountId == null || accountId == event.getAccountId()) {
+                    sink.event(event);
+                    delivered = true;
+                }
+                cursor++;
+            }
+            return delivered;
+        }
+
+        private boolean stalled() {
+            long now = System.nanoTime();
+            if (stalledCursor != cursor) {
+                stalledCursor = cursor;
+                stalledSince = now;
+            }
+            return now - stalledSince >= stallNanos;
+        }
+
+        public synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (task != null) {
+                task.cancel(false);
+                subscribers.decrementAndGet();
+            }
+        }
+
+        private synchronized void dispatch(Sink sink) {
+            idleSince = System.nanoTime();
+            task = dispatcher.scheduleWithFixedDelay(() -> poll(sink), 0, pollNanos, TimeUnit.NANOSECONDS);
+        }
+
+        // runs of one subscription never overlap, and neither do its writes, each submitted only once the
+        // previous one is done, so its cursor needs no lock
+        private void poll(Sink sink) {
+            if (closed) {
+                return;
+            }
+            long now = System.nanoTime();
+            if (write != null && !write.isDone()) {
+                if (now - writeStarted >= writeTimeoutNanos) {
+                    // the client stopped reading: interrupt the write stuck on it and let the slot go
+                    close();
+                    write.cancel(true);
+                }
+                return;
+            }
+            if (reset || cursor <= sequence.get() || now - idleSince >= keepAliveNanos) {
+                writeStarted = now;
+                write = writers.submit(() -> write(sink));
+            }
+        }
+
+        private void write(Sink sink) {
+            try {
+                if (drain(sink)) {
+                    idleSince = System.nanoTime();
+                } else if (System.nanoTime() - idleSince >= keepAliveNanos) {
+                    sink.keepAlive();
+                    idleSince = System.nanoTime();
+                }
+            } catch (IOException | RuntimeException e) {
+                // the client went away
+                close();
+            }
+        }
+    }
+}
@@ -1,8 +1,29 @@
 package com.banking.banking.exception;
 
 
+import static com.banking.banking.exception.Messages.ACCOUNT_NOT_FOUND;
+
+/**
+ * Carries no stack trace and formats its message only when it is read, usually while the error body is
+ * being serialized, so that unknown accounts are cheap to reject.
+ */
 public class AccountNotFoundException extends RuntimeException {
+
+    private final Long accountId;
+
     public AccountNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
+        this.accountId = null;
+    }
+
+    public AccountNotFoundException(Long accountId) {
+        super(null, null, false, false);
+        this.accountId = accountId;
+    }
+
+    @Override
+    public String getMessage() {
+        String message = super.getMessage();
+        return message != null ? message : String.format(ACCOUNT_NOT_FOUND, accountId);
     }
 }
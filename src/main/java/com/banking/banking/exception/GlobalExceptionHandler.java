@@ -1,29 +1,67 @@
 package com.banking.banking.exception;
 
+import com.banking.banking.entity.dto.ErrorDto;
+import com.banking.banking.metrics.RejectionReason;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Stream;
 
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Errors are always JSON: their content type is set explicitly, so that clients accepting only another
+ * format, such as the binary one, still get the error instead of an empty 500.
+ */
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final String INVALID_REQUEST = "INVALID_REQUEST";
+    private static final String IDEMPOTENCY_KEY_REUSED = "IDEMPOTENCY_KEY_REUSED";
+
+    // responses to the shared rejections are built once
+    private static final Map<OperationRejectedException, ResponseEntity<ErrorDto>> PRECOMPUTED = Stream.of(
+                    OperationRejectedException.INVALID_AMOUNT,
+                    OperationRejectedException.TRANSFER_TYPE_NOT_SUPPORTED,
+                    OperationRejectedException.SAME_ACCOUNT,
+                    OperationRejectedException.OVERFLOW)
+            .collect(toMap(ex -> ex, GlobalExceptionHandler::badRequest));
+
     @ExceptionHandler(AccountNotFoundException.class)
-    public ResponseEntity<Map<String, Object>> handleAccountNotFoundException(AccountNotFoundException ex) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    public ResponseEntity<ErrorDto> handleAccountNotFoundException(AccountNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(new ErrorDto(RejectionReason.ACCOUNT_NOT_FOUND.name(), ex));
+    }
+
+    @ExceptionHandler(OperationRejectedException.class)
+    public ResponseEntity<ErrorDto> handleOperationRejectedException(OperationRejectedException ex) {
+        ResponseEntity<ErrorDto> response = PRECOMPUTED.get(ex);
+        return response != null ? response : badRequest(ex);
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<Map<String, Object>> handleIllegalArgumentException(IllegalArgumentException ex) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    public ResponseEntity<ErrorDto> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(new ErrorDto(INVALID_REQUEST, ex));
     }
 
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorDto> handleIdempotencyKeyReusedException(IdempotencyKeyReusedException ex) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).contentType(MediaType.APPLICATION_JSON).body(new ErrorDto(IDEMPOTENCY_KEY_REUSED, ex));
+    }
+
+    @ExceptionHandler(OverloadedException.class)
+    public ResponseEntity<ErrorDto> handleOverloadedException(OverloadedException ex) {
+        return ResponseEntity.status(ex.isAccountScoped() ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorDto(RejectionReason.OVERLOADED.name(), ex));
+    }
+
+    private static ResponseEntity<ErrorDto> badRequest(OperationRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(new ErrorDto(ex.getReason().name(), ex));
+    }
 }
@@ -0,0 +1,14 @@
+package com.banking.banking.exception;
+
+
+import static com.banking.banking.exception.Messages.IDEMPOTENCY_KEY_REUSED;
+
+/**
+ * Thrown when an {@code Idempotency-Key} still held by one request comes with a different one.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException() {
+        super(IDEMPOTENCY_KEY_REUSED);
+    }
+}
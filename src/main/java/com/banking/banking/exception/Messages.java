@@ -8,5 +8,18 @@ public class Messages {
     public static final String ACCOUNT_NOT_FOUND = "Account not found for ID: %d";
     public static final String AMOUNT_MUST_BE_GREATER_THAN_0 = "Amount must be greater than 0.";
 
-    public static final String INSUFFICIENT_BALANCE = "Insufficient balance for withdrawal. Your current balance is : %f";
+    public static final String INVALID_PAGE_LIMIT = "Limit must be between 1 and %d.";
+    public static final String INVALID_CURSOR = "Cursor must not be negative.";
+    public static final String INVALID_DATE_RANGE = "From must not be after to.";
+
+    public static final String SAME_ACCOUNT_TRANSFER = "Source and destination accounts must be different.";
+    public static final String TRANSFER_NOT_SUPPORTED = "Transfers must be made through /api/v1/transfers.";
+    public static final String IDEMPOTENCY_KEY_REUSED = "Idempotency key already used for a different request.";
+
+    public static final String SERVER_OVERLOADED = "Too many operations in progress, retry later.";
+    public static final String ACCOUNT_OVERLOADED = "Too many operations in progress on account %d, retry later.";
+    public static final String TOO_MANY_SUBSCRIBERS = "Too many operation streams open, retry later.";
+
+    public static final String BALANCE_OVERFLOW = "Operation would take the balance beyond its maximum.";
+    public static final String INSUFFICIENT_BALANCE = "Insufficient balance for withdrawal. Your current balance is : %s";
 }
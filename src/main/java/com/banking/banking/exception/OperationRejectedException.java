@@ -0,0 +1,48 @@
+package com.banking.banking.exception;
+
+import com.banking.banking.entity.Money;
+import com.banking.banking.metrics.RejectionReason;
+
+import static com.banking.banking.exception.Messages.*;
+
+/**
+ * An operation refused by validation. Carries no stack trace and formats its message only when it is
+ * read; rejections without parameters are shared constants, so refusing them allocates nothing. Being
+ * shared, they also record no suppressed exceptions, which is why this is not an
+ * {@link IllegalArgumentException}: only the {@link RuntimeException} constructor can disable that.
+ */
+public class OperationRejectedException extends RuntimeException {
+
+    public static final OperationRejectedException INVALID_AMOUNT =
+            new OperationRejectedException(RejectionReason.INVALID_AMOUNT, AMOUNT_MUST_BE_GREATER_THAN_0, 0);
+    public static final OperationRejectedException TRANSFER_TYPE_NOT_SUPPORTED =
+            new OperationRejectedException(RejectionReason.INVALID_OPERATION, TRANSFER_NOT_SUPPORTED, 0);
+    public static final OperationRejectedException SAME_ACCOUNT =
+            new OperationRejectedException(RejectionReason.INVALID_OPERATION, SAME_ACCOUNT_TRANSFER, 0);
+    public static final OperationRejectedException OVERFLOW =
+            new OperationRejectedException(RejectionReason.INVALID_AMOUNT, BALANCE_OVERFLOW, 0);
+
+    private final RejectionReason reason;
+    private final String format;
+    private final long amount;
+
+    private OperationRejectedException(RejectionReason reason, String format, long amount) {
+        super(null, null, false, false);
+        this.reason = reason;
+        this.format = format;
+        this.amount = amount;
+    }
+
+    public static OperationRejectedException insufficientBalance(long balance) {
+        return new OperationRejectedException(RejectionReason.INSUFFICIENT_BALANCE, INSUFFICIENT_BALANCE, balance);
+    }
+
+    public RejectionReason getReason() {
+        return reason;
+    }
+
+    @Override
+    public String getMessage() {
+        return reason == RejectionReason.INSUFFICIENT_BALANCE ? String.format(format, Money.format(amount)) : format;
+    }
+}
@@ -0,0 +1,44 @@
+package com.banking.banking.exception;
+
+import java.time.Duration;
+
+import static com.banking.banking.exception.Messages.ACCOUNT_OVERLOADED;
+
+/**
+ * Thrown when a request is refused by admission control, either because the whole server or because
+ * one account has too many operations in progress. Carries no stack trace and formats the account
+ * message only when it is read, so that shedding load stays cheap.
+ */
+public class OverloadedException extends RuntimeException {
+
+    private final boolean accountScoped;
+    private final Long accountId;
+    private final Duration retryAfter;
+
+    public OverloadedException(String message, Duration retryAfter) {
+        super(message, null, false, false);
+        this.accountScoped = false;
+        this.accountId = null;
+        this.retryAfter = retryAfter;
+    }
+
+    public OverloadedException(Long accountId, Duration retryAfter) {
+        super(null, null, false, false);
+        this.accountScoped = true;
+        this.accountId = accountId;
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public String getMessage() {
+        return accountScoped ? String.format(ACCOUNT_OVERLOADED, accountId) : super.getMessage();
+    }
+
+    public boolean isAccountScoped() {
+        return accountScoped;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
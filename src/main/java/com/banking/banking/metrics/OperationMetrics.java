@@ -0,0 +1,60 @@
+package com.banking.banking.metrics;
+
+import com.banking.banking.entity.enums.OperationType;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and rejection counters of the operation hot path. Everything is allocated up
+ * front and indexed by enum ordinal, so recording never allocates and can stay on in production.
+ */
+@Component
+public class OperationMetrics {
+
+    private final LatencyHistogram[] operationLatencies = new LatencyHistogram[OperationType.values().length];
+    private final LatencyHistogram lookupLatency = new LatencyHistogram();
+    private final LatencyHistogram validationLatency = new LatencyHistogram();
+    private final LongAdder[] rejections = new LongAdder[RejectionReason.values().length];
+
+    public OperationMetrics() {
+        for (int i = 0; i < operationLatencies.length; i++) {
+            operationLatencies[i] = new LatencyHistogram();
+        }
+        for (int i = 0; i < rejections.length; i++) {
+            rejections[i] = new LongAdder();
+        }
+    }
+
+    public void recordOperation(OperationType type, long nanos) {
+        operationLatencies[type.ordinal()].record(nanos);
+    }
+
+    public void recordLookup(long nanos) {
+        lookupLatency.record(nanos);
+    }
+
+    public void recordValidation(long nanos) {
+        validationLatency.record(nanos);
+    }
+
+    public void reject(RejectionReason reason) {
+        rejections[reason.ordinal()].increment();
+    }
+
+    public LatencyHistogram operationLatency(OperationType type) {
+        return operationLatencies[type.ordinal()];
+    }
+
+    public LatencyHistogram lookupLatency() {
+        return lookupLatency;
+    }
+
+    public LatencyHistogram validationLatency() {
+        return validationLatency;
+    }
+
+    public long rejections(RejectionReason reason) {
+        return rejections[reason.ordinal()].sum();
+    }
+}
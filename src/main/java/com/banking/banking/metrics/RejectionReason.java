@@ -0,0 +1,9 @@
+package com.banking.banking.metrics;
+
+public enum RejectionReason {
+    ACCOUNT_NOT_FOUND,
+    INVALID_AMOUNT,
+    INVALID_OPERATION,
+    INSUFFICIENT_BALANCE,
+    OVERLOADED
+}
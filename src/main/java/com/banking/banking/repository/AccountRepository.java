@@ -1,30 +1,76 @@
 package com.banking.banking.repository;
 
+import com.banking.banking.config.BankingProperties;
 import com.banking.banking.entity.Account;
+import com.banking.banking.entity.AccountSummary;
+import com.banking.banking.entity.Money;
+import com.banking.banking.entity.Operation;
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.entity.enums.OperationType;
 import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Repository;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Repository
 public class AccountRepository {
 
+    private static final OperationType[] TYPES = OperationType.values();
+
     private ConcurrentHashMap<Long, Account> accounts = new ConcurrentHashMap<>();
 
+    private final OperationJournal journal;
+    private final AccountSnapshot snapshot;
+    private final int hotOperations;
+
+    public AccountRepository() {
+        this(null);
+    }
+
+    public AccountRepository(@Nullable OperationJournal journal) {
+        this(journal, null);
+    }
+
+    public AccountRepository(@Nullable OperationJournal journal, @Nullable AccountSnapshot snapshot) {
+        this(journal, snapshot, OperationHistory.UNBOUNDED);
+    }
+
+    @Autowired
+    public AccountRepository(@Nullable OperationJournal journal, @Nullable AccountSnapshot snapshot,
+                             BankingProperties properties) {
+        this(journal, snapshot, properties.getHistory().getHotOperations());
+    }
+
+    private AccountRepository(OperationJournal journal, AccountSnapshot snapshot, int hotOperations) {
+        this.journal = journal;
+        this.snapshot = snapshot;
+        this.hotOperations = hotOperations;
+    }
+
     @PostConstruct
-    void init() {
-        Account account = buildStaticAccount();
-        accounts.put(account.getId(), account);
+    void init() throws IOException {
+        if (snapshot != null) {
+            accounts = snapshot.load();
+            accounts.values().forEach(AccountRepository::summarize);
+        } else {
+            save(buildStaticAccount());
+        }
+        if (journal != null) {
+            journal.replay(this::replay);
+        }
     }
 
 
     private Account buildStaticAccount() {
         return Account.builder()
                 .id(1L)
-                .balance(100.5)
-                .operations(new ArrayList<>())
+                .balance(Money.of("100.50"))
+                .history(new OperationHistory(hotOperations))
                 .build();
     }
 
@@ -32,4 +78,65 @@ public class AccountRepository {
     public Optional<Account> findAccountById(Long accountId) {
        return Optional.ofNullable(accounts.get(accountId));
     }
+
+    public Collection<Account> findAll() {
+        return accounts.values();
+    }
+
+    public Account save(Account account) {
+        open(account);
+        accounts.put(account.getId(), account);
+        return account;
+    }
+
+    // the balance of an account built in code already includes its history
+    private static void open(Account account) {
+        OperationHistory history = account.getHistory();
+        account.setOpeningBalance(account.getBalance() - history.netBefore(history.size()));
+        summarize(account);
+    }
+
+    // snapshot accounts come with their own opening balance, so reconciliation can catch a drift in the file
+    private static void summarize(Account account) {
+        OperationHistory history = account.getHistory();
+        account.setLoadedOperations(history.size() - account.getVersion());
+        if (history.size() > 0) {
+            account.setSummary(AccountSummary.of(account.getOpeningBalance(), history));
+        }
+    }
+
+    /**
+     * Writes the operation, which already carries its id, to the journal, if one is configured.
+     * Callers must hold the account's engine lock so that journal order matches the order in which
+     * operations are applied.
+     */
+    public void persist(Operation operation) {
+        if (journal != null) {
+            journal.append((byte) (operation.getType().ordinal() + 1), (byte) 0,
+                    operation.getAccountId(),
+                    operation.getAmount(),
+                    operation.getId());
+        }
+    }
+
+    /**
+     * Writes both legs of a transfer to the journal as one linked pair, so that a crash can never
+     * replay one without the other. Callers must hold the engine lock of both accounts.
+     */
+    public void persistTransfer(long id, long fromAccountId, long toAccountId, long amount) {
+        if (journal != null) {
+            journal.appendLinked((byte) (OperationType.TRANSFER.ordinal() + 1),
+                    fromAccountId, -amount,
+                    toAccountId, amount,
+                    id);
+        }
+    }
+
+    private void replay(byte type, byte flags, long accountId, long amount, long id) {
+        Account account = accounts.get(accountId);
+        if (account == null) {
+            return;
+        }
+        account.apply(id, TYPES[type - 1], amount, OperationIdGenerator.timestamp(id));
+    }
 }
@@ -0,0 +1,493 @@
+package com.banking.banking.repository;
+
+import com.banking.banking.entity.Account;
+import com.banking.banking.entity.Money;
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.entity.enums.OperationType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Loads accounts in bulk from a snapshot file at startup. The file is split into chunks that are
+ * memory-mapped and parsed in parallel, and the account map is sized for the final account count
+ * before it is filled, so it never rehashes. Two formats are supported.
+ * <p>
+ * {@link Format#CSV}: one account per line, {@code id,balance[,openingBalance][,history]}. Amounts are
+ * decimals with at most two fraction digits, the optional history a {@code ;}-separated list of
+ * {@code TYPE:amount:epochMillis} entries. Lines that do not start with a digit, such as a header,
+ * are skipped. Without an opening balance the account is taken as consistent with its history, and
+ * reconciliation can then not catch a drift that was already in the file.
+ * <p>
+ * {@link Format#BINARY}: a 16-byte header, then one 40-byte record per account followed by one
+ * 32-byte record per history entry:
+ *
+ * <pre>
+ * header   0 magic int, 4 version int, 8 account count long
+ * account  0 id long, 8 balance long, 16 opening balance long, 24 first history record long, 32 history size int
+ * history  0 id long, 8 amount long, 16 timestamp long, 24 type byte
+ * </pre>
+ */
+public class AccountSnapshot {
+
+    public enum Format {
+        CSV,
+        BINARY
+    }
+
+    private static final int MAGIC = 0x424B5331;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 16;
+    private static final int ACCOUNT_SIZE = 40;
+    private static final int RECORD_SIZE = 32;
+    private static final long MAX_CHUNK_SIZE = 1L << 30;
+
+    private static final OperationType[] TYPES = OperationType.values();
+    private static final byte[][] TYPE_NAMES = new byte[TYPES.length][];
+
+    static {
+        for (int i = 0; i < TYPES.length; i++) {
+            TYPE_NAMES[i] = TYPES[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final Path path;
+    private final Format format;
+    private final int parallelism;
+    private final int hotOperations;
+    private final long historyWindow;
+
+    public AccountSnapshot(Path path, Format format, int parallelism) {
+        this(path, format, parallelism, OperationHistory.UNBOUNDED);
+    }
+
+    public AccountSnapshot(Path path, Format format, int parallelism, int hotOperations) {
+        this(path, format, parallelism, hotOperations, MAX_CHUNK_SIZE);
+    }
+
+    AccountSnapshot(Path path, Format format, int parallelism, int hotOperations, long historyWindow) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Snapshot parallelism must be positive");
+        }
+        this.path = path;
+        this.format = format;
+        this.parallelism = parallelism;
+        this.hotOperations = hotOperations;
+        this.historyWindow = Math.max(1, historyWindow / RECORD_SIZE);
+    }
+
+    public ConcurrentHashMap<Long, Account> load() throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "account-snapshot-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            List<Callable<List<Account>>> tasks = format == Format.BINARY ? binaryChunks(channel) : csvChunks(channel);
+            List<List<Account>> chunks = invokeAll(executor, tasks);
+
+            int count = 0;
+            for (List<Account> chunk : chunks) {
+                count += chunk.size();
+            }
+            ConcurrentHashMap<Long, Account> accounts = new ConcurrentHashMap<>(Math.max(16, count));
+            List<Callable<List<Account>>> inserts = new ArrayList<>(chunks.size());
+            for (List<Account> chunk : chunks) {
+                inserts.add(() -> {
+                    for (Account account : chunk) {
+                        accounts.put(account.getId(), account);
+                    }
+                    return chunk;
+                });
+            }
+            invokeAll(executor, inserts);
+            return accounts;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Writes the accounts and their current history in {@link Format#BINARY} format.
+     */
+    public static void writeBinary(Path path, Collection<Account> accounts) throws IOException {
+        Account[] snapshot = accounts.toArray(new Account[0]);
+        int[] historySizes = new int[snapshot.length];
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(snapshot.length);
+
+            long historyStart = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                historySizes[i] = snapshot[i].getHistory().size();
+                ensureRemaining(channel, buffer, ACCOUNT_SIZE);
+                buffer.putLong(snapshot[i].getId())
+                        .putLong(snapshot[i].getBalance())
+                        .putLong(snapshot[i].getOpeningBalance())
+                        .putLong(historyStart)
+                        .putInt(historySizes[i])
+                        .putInt(0);
+                historyStart += historySizes[i];
+            }
+
+            for (int i = 0; i < snapshot.length; i++) {
+                OperationHistory history = snapshot[i].getHistory();
+                for (int k = 0; k < historySizes[i]; k++) {
+                    ensureRemaining(channel, buffer, RECORD_SIZE);
+                    buffer.putLong(history.id(k))
+                            .putLong(history.amount(k))
+                            .putLong(history.timestamp(k))
+                            .putLong((long) (history.type(k).ordinal() + 1) << 56);
+                }
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private List<Callable<List<Account>>> binaryChunks(FileChannel channel) throws IOException {
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            throw new IOException("Unsupported snapshot format: " + path);
+        }
+        long count = header.getLong(8);
+        long historyBase = HEADER_SIZE + count * ACCOUNT_SIZE;
+        if (count < 0 || count > Integer.MAX_VALUE || historyBase > channel.size()) {
+            throw new IOException("Corrupt snapshot header: " + path);
+        }
+
+        int chunks = (int) Math.max(parallelism, (count * ACCOUNT_SIZE + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+        long perChunk = (count + chunks - 1) / chunks;
+        List<Callable<List<Account>>> tasks = new ArrayList<>(chunks);
+        for (long first = 0; first < count; first += perChunk) {
+            long start = first;
+            int size = (int) Math.min(perChunk, count - first);
+            tasks.add(() -> parseBinary(channel, historyBase, start, size));
+        }
+        return tasks;
+    }
+
+    private List<Account> parseBinary(FileChannel channel, long historyBase, long first, int count) throws IOException {
+        MappedByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * ACCOUNT_SIZE, (long) count * ACCOUNT_SIZE);
+        long historyFrom = records.getLong(24);
+        long historyTo = records.getLong((count - 1) * ACCOUNT_SIZE + 24) + records.getInt((count - 1) * ACCOUNT_SIZE + 32);
+        if (historyFrom < 0 || historyTo < historyFrom || historyBase + historyTo * RECORD_SIZE > channel.size()) {
+            throw new IOException("Corrupt snapshot history section: " + path);
+        }
+
+        // the chunk's history can be far larger than its accounts, so it is mapped a window at a time
+        MappedByteBuffer history = null;
+        long windowFrom = 0;
+        long windowTo = 0;
+        List<Account> accounts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int offset = i * ACCOUNT_SIZE;
+            OperationHistory operations = new OperationHistory(hotOperations);
+            long record = records.getLong(offset + 24);
+            int historySize = records.getInt(offset + 32);
+            if (record < historyFrom || historySize < 0 || record + historySize > historyTo) {
+                throw new IOException("Corrupt snapshot history section: " + path);
+            }
+            for (int k = 0; k < historySize; k++, record++) {
+                if (record < windowFrom || record >= windowTo) {
+                    windowFrom = record;
+                    windowTo = Math.min(record + historyWindow, historyTo);
+                    history = channel.map(FileChannel.MapMode.READ_ONLY, historyBase + windowFrom * RECORD_SIZE,
+                            (windowTo - windowFrom) * RECORD_SIZE);
+                }
+                int historyOffset = (int) (record - windowFrom) * RECORD_SIZE;
+                int type = history.get(historyOffset + 24);
+                if (type < 1 || type > TYPES.length) {
+                    throw new IOException("Unknown operation type " + type + " in snapshot: " + path);
+                }
+                append(operations, history.getLong(historyOffset), TYPES[type - 1],
+                        history.getLong(historyOffset + 8), history.getLong(historyOffset + 16));
+            }
+            accounts.add(Account.builder()
+                    .id(records.getLong(offset))
+                    .balance(records.getLong(offset + 8))
+                    .openingBalance(records.getLong(offset + 16))
+                    .history(operations)
+                    .build());
+        }
+        return accounts;
+    }
+
+    // operations recorded before they had ids get one derived from their time, still increasing
+    private static void append(OperationHistory history, long id, OperationType type, long amount, long timestamp) {
+        if (id == 0) {
+            id = OperationIdGenerator.firstId(timestamp);
+            if (history.size() > 0) {
+                id = Math.max(id, history.id(history.size() - 1) + 1);
+            }
+        }
+        history.append(id, type, amount, timestamp);
+    }
+
+    private List<Callable<List<Account>>> csvChunks(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int chunks = (int) Math.max(parallelism, (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+        long[] bounds = new long[chunks + 1];
+        bounds[chunks] = size;
+        for (int i = 1; i < chunks; i++) {
+            bounds[i] = nextLineStart(channel, Math.max(bounds[i - 1], size / chunks * i));
+        }
+
+        List<Callable<List<Account>>> tasks = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            long start = bounds[i];
+            long end = bounds[i + 1];
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot line too long near byte " + start + ": " + path);
+            }
+            if (end > start) {
+                tasks.add(() -> new CsvParser(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start), start).parse());
+            }
+        }
+        return tasks;
+    }
+
+    private static long nextLineStart(FileChannel channel, long position) throws IOException {
+        if (position == 0) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long offset = position - 1;
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+    }
+
+    private final class CsvParser {
+        private final MappedByteBuffer buffer;
+        private final long base;
+        private final int limit;
+        private int position;
+
+        CsvParser(MappedByteBuffer buffer, long base) {
+            this.buffer = buffer;
+            this.base = base;
+            this.limit = buffer.limit();
+        }
+
+        List<Account> parse() throws IOException {
+            List<Account> accounts = new ArrayList<>(Math.max(16, limit / 16));
+            while (position < limit) {
+                byte first = buffer.get(position);
+                if (first < '0' || first > '9') {
+                    skipLine();
+                    continue;
+                }
+                long id = parseLong(',');
+                position++;
+                long balance = parseAmount();
+                boolean hasOpeningBalance = false;
+                long openingBalance = 0;
+                OperationHistory history = new OperationHistory(hotOperations);
+                if (position < limit && buffer.get(position) == ',' && startsAmount(position + 1)) {
+                    position++;
+                    openingBalance = parseAmount();
+                    hasOpeningBalance = true;
+                }
+                if (position < limit && buffer.get(position) == ',') {
+                    position++;
+                    parseHistory(history);
+                } else if (position < limit && !isLineEnd(buffer.get(position))) {
+                    throw malformed(position);
+                }
+                skipLine();
+                if (!hasOpeningBalance) {
+                    openingBalance = balance - history.netBefore(history.size());
+                }
+                accounts.add(Account.builder().id(id).balance(balance).openingBalance(openingBalance).history(history).build());
+            }
+            return accounts;
+        }
+
+        private void parseHistory(OperationHistory history) throws IOException {
+            while (position < limit && !isLineEnd(buffer.get(position))) {
+                OperationType type = parseType();
+                expect(':');
+                long amount = parseAmount();
+                expect(':');
+                long timestamp = parseLong(';');
+                append(history, 0, type, amount, timestamp);
+                if (position < limit && buffer.get(position) == ';') {
+                    position++;
+                }
+            }
+        }
+
+        // an amount starts with a digit or a sign, a history entry with its type name
+        private boolean startsAmount(int offset) {
+            if (offset >= limit) {
+                return false;
+            }
+            byte b = buffer.get(offset);
+            return b == '-' || b >= '0' && b <= '9';
+        }
+
+        private OperationType parseType() throws IOException {
+            int start = position;
+            while (position < limit && buffer.get(position) != ':') {
+                position++;
+            }
+            for (int t = 0; t < TYPE_NAMES.length; t++) {
+                if (matches(start, TYPE_NAMES[t])) {
+                    return TYPES[t];
+                }
+            }
+            throw malformed(start);
+        }
+
+        private boolean matches(int start, byte[] name) {
+            if (position - start != name.length) {
+                return false;
+            }
+            for (int i = 0; i < name.length; i++) {
+                if (buffer.get(start + i) != name[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long parseLong(char separator) throws IOException {
+            int start = position;
+            long value = 0;
+            while (position < limit) {
+                byte b = buffer.get(position);
+                if (b == separator || isLineEnd(b)) {
+                    break;
+                }
+                if (b < '0' || b > '9' || value > (Long.MAX_VALUE - (b - '0')) / 10) {
+                    throw malformed(start);
+                }
+                value = value * 10 + (b - '0');
+                position++;
+            }
+            if (position == start) {
+                throw malformed(start);
+            }
+            return value;
+        }
+
+        // Decimal with up to Money.SCALE fraction digits, to minor units; no intermediate objects.
+        private long parseAmount() throws IOException {
+            int start = position;
+            boolean negative = position < limit && buffer.get(position) == '-';
+            if (negative) {
+                position++;
+            }
+            long value = 0;
+            int fractionDigits = -1;
+            while (position < limit) {
+                byte b = buffer.get(position);
+                if (b == '.' && fractionDigits < 0) {
+                    fractionDigits = 0;
+                } else if (b >= '0' && b <= '9') {
+                    if (fractionDigits >= Money.SCALE || value > (Long.MAX_VALUE - (b - '0')) / 10) {
+                        throw malformed(start);
+                    }
+                    value = value * 10 + (b - '0');
+                    if (fractionDigits >= 0) {
+                        fractionDigits++;
+                    }
+                } else {
+                    break;
+                }
+                position++;
+            }
+            if (position == start + (negative ? 1 : 0)) {
+                throw malformed(start);
+            }
+            for (int i = Math.max(fractionDigits, 0); i < Money.SCALE; i++) {
+                if (value > Long.MAX_VALUE / 10) {
+                    throw malformed(start);
+                }
+                value *= 10;
+            }
+            return negative ? -value : value;
+        }
+
+        private void expect(char c) throws IOException {
+            if (position >= limit || buffer.get(position) != c) {
+                throw malformed(position);
+            }
+            position++;
+        }
+
+        private void skipLine() {
+            while (position < limit && buffer.get(position) != '\n') {
+                position++;
+            }
+            position++;
+        }
+
+        private boolean isLineEnd(byte b) {
+            return b == '\n' || b == '\r';
+        }
+
+        private IOException malformed(int offset) {
+            return new IOException("Malformed snapshot line at byte " + (base + offset) + ": " + path);
+        }
+    }
+
+    private static void ensureRemaining(FileChannel channel, ByteBuffer buffer, int size) throws IOException {
+        if (buffer.remaining() < size) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    private static <T> List<T> invokeAll(ExecutorService executor, List<Callable<T>> tasks) throws IOException {
+        try {
+            List<T> results = new ArrayList<>(tasks.size());
+            for (Future<T> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading snapshot", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IOException("Failed to load snapshot", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.banking.banking.repository;
+
+import com.banking.banking.config.BankingProperties;
+import com.banking.banking.entity.Account;
+import com.banking.banking.entity.OperationHistory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free generator of time-ordered 64-bit operation ids:
+ *
+ * <pre>
+ * 63  zero
+ * 62  milliseconds since {@link #EPOCH}    41 bits
+ * 21  node id                             10 bits
+ * 11  sequence within the millisecond     12 bits
+ * </pre>
+ *
+ * Ids of one node strictly increase, so they order operations and serve as pagination cursors, and the
+ * time of an operation is read back from its id. The last issued millisecond and sequence are packed
+ * into one atomic long advanced by compare-and-set. A node issuing more than 4096 ids in a millisecond
+ * borrows the next one instead of waiting, and a clock going back never takes ids back with it; in both
+ * cases ids run ahead of the clock until it catches up.
+ * <p>
+ * On startup the generator is advanced past the highest id already loaded from the snapshot and the
+ * journal, so ids keep increasing along every history across restarts, whatever the clock did.
+ */
+@Component
+public class OperationIdGenerator {
+
+    /**
+     * 2020-01-01T00:00:00Z, which leaves ids positive until 2089.
+     */
+    public static final long EPOCH = 1_577_836_800_000L;
+
+    static final int SEQUENCE_BITS = 12;
+    static final int NODE_BITS = 10;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long node;
+    private final LongSupplier clock;
+    private final AtomicLong last = new AtomicLong();
+
+    @Autowired
+    public OperationIdGenerator(BankingProperties properties, AccountRepository accountRepository) {
+        this(properties.getNodeId());
+        for (Account account : accountRepository.findAll()) {
+            OperationHistory history = account.getHistory();
+            // ids increase along a history, so its last one is its highest
+            if (history.size() > 0) {
+                advancePast(history.id(history.size() - 1));
+            }
+        }
+    }
+
+    public OperationIdGenerator(BankingProperties properties) {
+        this(properties.getNodeId());
+    }
+
+    public OperationIdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    OperationIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.node = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    public long next() {
+        long now = (clock.getAsLong() - EPOCH) << SEQUENCE_BITS;
+        while (true) {
+            long previous = last.get();
+            long next = Math.max(previous + 1, now);
+            if (last.compareAndSet(previous, next)) {
+                return (next & ~SEQUENCE_MASK) << NODE_BITS | node | next & SEQUENCE_MASK;
+            }
+        }
+    }
+
+    /**
+     * Makes every id issued from now on greater than the given one.
+     */
+    public void advancePast(long id) {
+        long millis = id >>> (NODE_BITS + SEQUENCE_BITS) << SEQUENCE_BITS;
+        // a higher node's id is above all of ours in its millisecond, so move on to the next one
+        long issued = (id >>> SEQUENCE_BITS & MAX_NODE_ID) > node >>> SEQUENCE_BITS
+                ? millis | SEQUENCE_MASK
+                : millis | id & SEQUENCE_MASK;
+        last.accumulateAndGet(issued, Math::max);
+    }
+
+    /**
+     * Epoch-millis time at which the id was issued.
+     */
+    public static long timestamp(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+
+    /**
+     * Smallest id of the given epoch-millis time, for operations recorded without an id.
+     */
+    public static long firstId(long timestamp) {
+        return timestamp - EPOCH << (NODE_BITS + SEQUENCE_BITS);
+    }
+}
@@ -0,0 +1,291 @@
+package com.banking.banking.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only binary journal of applied operations, written through memory-mapped regions of the
+ * journal file. Every record has the same fixed layout:
+ *
+ * <pre>
+ *  0  type       byte   (0 marks the end of the journal)
+ *  1  flags      byte
+ *  4  checksum   int
+ *  8  accountId  long
+ * 16  amount     long   (minor units)
+ * 24  id         long   (operation id, which carries its epoch-millis time)
+ * </pre>
+ *
+ * Records are flushed to disk in groups by a background thread, or one by one in strict durability
+ * mode. On open, the journal is scanned up to the first empty or torn record and everything after it
+ * is discarded.
+ * <p>
+ * A record flagged {@link #FLAG_LINKED} belongs together with the record that follows it, as the two
+ * legs of a transfer do. Linked records are replayed only once the whole group is intact; a group cut
+ * off by a crash is discarded as a whole.
+ */
+public class OperationJournal implements Closeable {
+
+    public static final int RECORD_SIZE = 32;
+    public static final byte FLAG_LINKED = 1;
+
+    private static final int MAGIC = 0x424B4A31;
+    private static final int VERSION = 3;
+
+    private static final int TYPE = 0;
+    private static final int FLAGS = 1;
+    private static final int CHECKSUM = 4;
+    private static final int ACCOUNT_ID = 8;
+    private static final int AMOUNT = 16;
+    private static final int ID = 24;
+
+    private final FileChannel channel;
+    private final long regionSize;
+    private final boolean strictDurability;
+    private final ScheduledExecutorService flusher;
+    // serializes flushes, so that appends never wait for the disk
+    private final Object flushLock = new Object();
+
+    private MappedByteBuffer region;
+    private long regionStart;
+    private int regionOffset;
+    private long writePosition;
+    private long flushedPosition;
+    private boolean replayed;
+
+    private OperationJournal(FileChannel channel, long regionSize, boolean strictDurability, Duration flushInterval) {
+        this.channel = channel;
+        this.regionSize = regionSize;
+        this.strictDurability = strictDurability;
+        if (strictDurability) {
+            this.flusher = null;
+        } else {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "operation-journal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = Math.max(1, flushInterval.toMillis());
+            flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public static OperationJournal open(Path path, long regionSize, boolean strictDurability, Duration flushInterval) throws IOException {
+        if (regionSize < 2 * RECORD_SIZE || regionSize % RECORD_SIZE != 0 || regionSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Journal region size must be a multiple of " + RECORD_SIZE + " bytes below 2GB");
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        OperationJournal journal = new OperationJournal(channel, regionSize, strictDurability, flushInterval);
+        journal.mapRegion(0);
+        if (journal.region.getInt(0) == 0) {
+            journal.region.putInt(0, MAGIC);
+            journal.region.putInt(4, VERSION);
+            journal.region.force();
+        } else if (journal.region.getInt(0) != MAGIC || journal.region.getInt(4) != VERSION) {
+            journal.close();
+            throw new IOException("Unsupported journal format: " + path);
+        }
+        journal.regionOffset = RECORD_SIZE;
+        journal.writePosition = RECORD_SIZE;
+        journal.flushedPosition = RECORD_SIZE;
+        return journal;
+    }
+
+    /**
+     * Feeds every valid record to the handler, then positions the journal for appending right after
+     * the last one. Must be called once, before the first append.
+     */
+    public synchronized int replay(RecordHandler handler) throws IOException {
+        if (replayed) {
+            throw new IllegalStateException("Journal has already been replayed");
+        }
+        int records = 0;
+        long groupRegion = -1;
+        int groupOffset = 0;
+        List<long[]> group = new ArrayList<>();
+        while (true) {
+            if (regionOffset == regionSize) {
+                if (channel.size() <= regionStart + regionSize) {
+                    break;
+                }
+                mapRegion(regionStart + regionSize);
+            }
+            byte type = region.get(regionOffset + TYPE);
+            if (type == 0) {
+                break;
+            }
+            byte flags = region.get(regionOffset + FLAGS);
+            long accountId = region.getLong(regionOffset + ACCOUNT_ID);
+            long amount = region.getLong(regionOffset + AMOUNT);
+            long id = region.getLong(regionOffset + ID);
+            if (region.getInt(regionOffset + CHECKSUM) != checksum(type, flags, accountId, amount, id)) {
+                break;
+            }
+            if (group.isEmpty() && (flags & FLAG_LINKED) == 0) {
+                handler.onRecord(type, flags, accountId, amount, id);
+                regionOffset += RECORD_SIZE;
+                records++;
+                continue;
+            }
+            if (group.isEmpty()) {
+                groupRegion = regionStart;
+                groupOffset = regionOffset;
+            }
+            group.add(new long[]{type, flags, accountId, amount, id});
+            regionOffset += RECORD_SIZE;
+            if ((flags & FLAG_LINKED) == 0) {
+                for (long[] record : group) {
+                    handler.onRecord((byte) record[0], (byte) record[1], record[2], record[3], record[4]);
+                }
+                records += group.size();
+                group.clear();
+            }
+        }
+        if (!group.isEmpty()) {
+            if (groupRegion != regionStart) {
+                mapRegion(groupRegion);
+            }
+            regionOffset = groupOffset;
+        }
+        discardTail();
+        writePosition = regionStart + regionOffset;
+        flushedPosition = writePosition;
+        replayed = true;
+        return records;
+    }
+
+    public synchronized void append(byte type, byte flags, long accountId, long amount, long id) {
+        checkReplayed();
+        write(type, flags, accountId, amount, id);
+    }
+
+    /**
+     * Appends two records sharing one id that are only ever replayed together.
+     */
+    public synchronized void appendLinked(byte type, long firstAccountId, long firstAmount,
+                                          long secondAccountId, long secondAmount, long id) {
+        checkReplayed();
+        write(type, FLAG_LINKED, firstAccountId, firstAmount, id);
+        write(type, (byte) 0, secondAccountId, secondAmount, id);
+    }
+
+    private void checkReplayed() {
+        if (!replayed) {
+            throw new IllegalStateException("Journal must be replayed before appending");
+        }
+    }
+
+    private void write(byte type, byte flags, long accountId, long amount, long id) {
+        if (regionOffset == regionSize) {
+            try {
+                region.force();
+                mapRegion(regionStart + regionSize);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        int offset = regionOffset;
+        region.putLong(offset + ACCOUNT_ID, accountId);
+        region.putLong(offset + AMOUNT, amount);
+        region.putLong(offset + ID, id);
+        region.putInt(offset + CHECKSUM, checksum(type, flags, accountId, amount, id));
+        region.put(offset + FLAGS, flags);
+        region.put(offset + TYPE, type);
+        regionOffset += RECORD_SIZE;
+        writePosition = regionStart + regionOffset;
+        if (strictDurability) {
+            region.force(offset, RECORD_SIZE);
+            flushedPosition = writePosition;
+        }
+    }
+
+    /**
+     * Forces everything appended so far to disk. Only the position is read under the append lock; the
+     * force itself runs outside it, so appends go on while a group is being written. Regions that are
+     * left behind are forced by the append that leaves them.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            MappedByteBuffer target;
+            long position;
+            synchronized (this) {
+                if (flushedPosition == writePosition || !channel.isOpen()) {
+                    return;
+                }
+                target = region;
+                position = writePosition;
+            }
+            target.force();
+            synchronized (this) {
+                flushedPosition = Math.max(flushedPosition, position);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        synchronized (flushLock) {
+            synchronized (this) {
+                if (channel.isOpen()) {
+                    region.force();
+                    flushedPosition = writePosition;
+                    channel.close();
+                }
+            }
+        }
+    }
+
+    private void mapRegion(long start) throws IOException {
+        region = channel.map(FileChannel.MapMode.READ_WRITE, start, regionSize);
+        regionStart = start;
+        regionOffset = 0;
+    }
+
+    // A crash can persist pages out of order, so valid-looking records may follow a torn one.
+    // They are wiped to make sure they can never be replayed after newer appends.
+    private void discardTail() throws IOException {
+        for (int offset = regionOffset; offset < regionSize; offset += RECORD_SIZE) {
+            if (region.getLong(offset) != 0 || region.getLong(offset + 8) != 0
+                    || region.getLong(offset + 16) != 0 || region.getLong(offset + 24) != 0) {
+                region.putLong(offset, 0);
+                region.putLong(offset + 8, 0);
+                region.putLong(offset + 16, 0);
+                region.putLong(offset + 24, 0);
+            }
+        }
+        region.force();
+        channel.truncate(regionStart + regionSize);
+    }
+
+    private static int checksum(byte type, byte flags, long accountId, long amount, long id) {
+        long h = (type & 0xFFL) << 8 | (flags & 0xFFL);
+        h = h * 0x9E3779B97F4A7C15L + accountId;
+        h = h * 0x9E3779B97F4A7C15L + amount;
+        h = h * 0x9E3779B97F4A7C15L + id;
+        h ^= h >>> 29;
+        return (int) (h ^ h >>> 32);
+    }
+
+    @FunctionalInterface
+    public interface RecordHandler {
+        void onRecord(byte type, byte flags, long accountId, long amount, long id);
+    }
+}
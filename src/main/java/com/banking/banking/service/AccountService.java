@@ -0,0 +1,94 @@
+package com.banking.banking.service;
+
+import com.banking.banking.engine.AccountEngine;
+import com.banking.banking.entity.Account;
+import com.banking.banking.entity.AccountSummary;
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.entity.dto.AccountSummaryDto;
+import com.banking.banking.entity.dto.BalanceDto;
+import com.banking.banking.entity.dto.OperationTotalsDto;
+import com.banking.banking.exception.AccountNotFoundException;
+import com.banking.banking.repository.AccountRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@AllArgsConstructor
+@Service
+public class AccountService {
+
+    private final AccountRepository accountRepository;
+    private final AccountEngine accountEngine;
+
+    /**
+     * Returns the balance of the account as of {@code at}, or its current balance when {@code at} is
+     * null. The current balance and history size are read together under the account lock, then the
+     * net amount of every operation after {@code at} is taken back out using the history checkpoints,
+     * so the cost does not depend on the length of the history.
+     */
+    public BalanceDto getBalance(Long accountId, LocalDateTime at) {
+        Account account = accountRepository.findAccountById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(accountId));
+
+        long balance;
+        if (at == null) {
+            balance = account.getBalance();
+        } else {
+            OperationHistory history = account.getHistory();
+            long[] state = accountEngine.execute(accountId, () -> new long[]{account.getBalance(), history.size()});
+            int size = (int) state[1];
+            int count = Math.min(history.countUntil(OperationHistory.toEpochMillis(at)), size);
+            balance = state[0] - (history.netBefore(size) - history.netBefore(count));
+        }
+
+        return BalanceDto.builder()
+                .accountId(accountId)
+                .balance(balance)
+                .at(at)
+                .build();
+    }
+
+    /**
+     * Returns the running totals of the account, all-time and per month. They are maintained as
+     * operations are applied, so this copies a few counters under the account lock and never reads the
+     * history.
+     */
+    public AccountSummaryDto getSummary(Long accountId) {
+        Account account = accountRepository.findAccountById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(accountId));
+
+        return accountEngine.execute(accountId, () -> {
+            AccountSummary summary = account.getSummary();
+            if (summary == null) {
+                summary = new AccountSummary(account.getBalance());
+            }
+            List<OperationTotalsDto> months = new ArrayList<>(summary.getMonths().size());
+            for (AccountSummary.Totals month : summary.getMonths()) {
+                months.add(convert(month));
+            }
+            return AccountSummaryDto.builder()
+                    .id(accountId)
+                    .balance(account.getBalance())
+                    .allTime(convert(summary.getAllTime()))
+                    .months(months)
+                    .build();
+        });
+    }
+
+    private static OperationTotalsDto convert(AccountSummary.Totals totals) {
+        return OperationTotalsDto.builder()
+                .month(totals.getMonth())
+                .operations(totals.getOperations())
+                .deposits(totals.getDeposits())
+                .withdrawals(totals.getWithdrawals())
+                .transfersIn(totals.getTransfersIn())
+                .transfersOut(totals.getTransfersOut())
+                .minBalance(totals.getMinBalance())
+                .maxBalance(totals.getMaxBalance())
+                .lastOperationDate(totals.getOperations() == 0 ? null : OperationHistory.toDateTime(totals.getLastTimestamp()))
+                .build();
+    }
+}
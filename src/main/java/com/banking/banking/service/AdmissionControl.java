@@ -0,0 +1,124 @@
+package com.banking.banking.service;
+
+import com.banking.banking.config.BankingProperties;
+import com.banking.banking.engine.AccountEngine;
+import com.banking.banking.exception.OverloadedException;
+import com.banking.banking.metrics.OperationMetrics;
+import com.banking.banking.metrics.RejectionReason;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Supplier;
+
+import static com.banking.banking.exception.Messages.SERVER_OVERLOADED;
+
+/**
+ * Bounds the write operations in progress, globally and per account, and refuses the rest at once
+ * instead of letting them queue on the engine: a burst then costs its own requests a retry rather than
+ * everybody's latency.
+ * <p>
+ * Per-account depth is counted in {@value #STRIPES} stripes, so accounts sharing a stripe share its
+ * limit; the fixed array needs no cleanup when accounts go idle.
+ */
+@Component
+public class AdmissionControl {
+
+    private static final int STRIPES = 1 << 12;
+
+    private final Semaphore inFlight;
+    private final AtomicIntegerArray depths = new AtomicIntegerArray(STRIPES);
+    private final int maxPerAccount;
+    private final Duration retryAfter;
+    private final OperationMetrics operationMetrics;
+
+    public AdmissionControl(BankingProperties properties, OperationMetrics operationMetrics) {
+        BankingProperties.Admission admission = properties.getAdmission();
+        this.inFlight = new Semaphore(admission.getMaxInFlight());
+        this.maxPerAccount = admission.getMaxPerAccount();
+        this.retryAfter = admission.getRetryAfter();
+        this.operationMetrics = operationMetrics;
+    }
+
+    public <T> T execute(Long accountId, Supplier<T> action) {
+        acquire();
+        try {
+            int stripe = admit(accountId);
+            try {
+                return action.get();
+            } finally {
+                depths.decrementAndGet(stripe);
+            }
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * Admits a batch as one request in flight that counts against the limit of every account it touches.
+     */
+    public <T> T execute(Collection<Long> accountIds, Supplier<T> action) {
+        acquire();
+        int[] stripes = new int[accountIds.size()];
+        int admitted = 0;
+        try {
+            for (Long accountId : accountIds) {
+                stripes[admitted] = admit(accountId);
+                admitted++;
+            }
+            return action.get();
+        } finally {
+            for (int i = 0; i < admitted; i++) {
+                depths.decrementAndGet(stripes[i]);
+            }
+            inFlight.release();
+        }
+    }
+
+    /**
+     * Same as {@link #execute(Long, Supplier)} for work completing later: capacity is held until the
+     * returned future completes, not only while it is being submitted.
+     */
+    public <T> CompletableFuture<T> executeAsync(Long accountId, Supplier<CompletableFuture<T>> action) {
+        acquire();
+        int stripe;
+        CompletableFuture<T> result;
+        try {
+            stripe = admit(accountId);
+        } catch (OverloadedException e) {
+            inFlight.release();
+            throw e;
+        }
+        try {
+            result = action.get();
+        } catch (RuntimeException | Error e) {
+            depths.decrementAndGet(stripe);
+            inFlight.release();
+            throw e;
+        }
+        return result.whenComplete((value, failure) -> {
+            depths.decrementAndGet(stripe);
+            inFlight.release();
+        });
+    }
+
+    private void acquire() {
+        if (!inFlight.tryAcquire()) {
+            operationMetrics.reject(RejectionReason.OVERLOADED);
+            throw new OverloadedException(SERVER_OVERLOADED, retryAfter);
+        }
+    }
+
+    private int admit(Long accountId) {
+        int stripe = accountId == null ? 0 : (int) (AccountEngine.spread(accountId) >>> 52);
+        if (depths.incrementAndGet(stripe) > maxPerAccount) {
+            depths.decrementAndGet(stripe);
+            operationMetrics.reject(RejectionReason.OVERLOADED);
+            throw new OverloadedException(accountId, retryAfter);
+        }
+        return stripe;
+    }
+}
@@ -0,0 +1,119 @@
+package com.banking.banking.service;
+
+import com.banking.banking.config.BankingProperties;
+import com.banking.banking.exception.IdempotencyKeyReusedException;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the result of requests carrying an {@code Idempotency-Key}, so that a retried request gets
+ * the original response instead of being applied again. A duplicate arriving while the first request
+ * is still running waits for its result. Failed requests are forgotten and can be retried. Each key is
+ * bound to a hash of its request, and reusing it for a different request is refused.
+ * <p>
+ * Every key lives for the same TTL, so insertion order is also expiry order: entries are evicted from
+ * the head of a FIFO queue once they expire or the cache exceeds its maximum size.
+ */
+@Component
+public class IdempotencyCache {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    public IdempotencyCache(BankingProperties properties) {
+        this.ttlNanos = properties.getIdempotency().getTtl().toNanos();
+        this.maxEntries = properties.getIdempotency().getMaxEntries();
+    }
+
+    /**
+     * @param requestHash hash of the fields of the request that decide its effect
+     * @throws IdempotencyKeyReusedException when the key is still held by a request with another hash
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, int requestHash, Supplier<T> action) {
+        Entry entry = new Entry(key, requestHash, System.nanoTime() + ttlNanos);
+        while (true) {
+            Entry existing = entries.putIfAbsent(key, entry);
+            if (existing == null) {
+                break;
+            }
+            if (!existing.isExpired(System.nanoTime())) {
+                if (existing.requestHash != requestHash) {
+                    throw new IdempotencyKeyReusedException();
+                }
+                return (T) await(existing);
+            }
+            if (entries.replace(key, existing, entry)) {
+                break;
+            }
+        }
+
+        try {
+            T result = action.get();
+            entry.result.complete(result);
+            insertionOrder.add(entry);
+            return result;
+        } catch (RuntimeException | Error e) {
+            entries.remove(key, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            evict();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        Entry head;
+        while ((head = insertionOrder.peek()) != null && (head.isExpired(now) || entries.size() > maxEntries)) {
+            // another thread may have taken the head meanwhile, then this takes the next one
+            head = insertionOrder.poll();
+            if (head != null) {
+                entries.remove(head.key, head);
+            }
+        }
+    }
+
+    private static Object await(Entry entry) {
+        try {
+            return entry.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Entry {
+        final String key;
+        final int requestHash;
+        final long expiresAt;
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        Entry(String key, int requestHash, long expiresAt) {
+            this.key = key;
+            this.requestHash = requestHash;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt > 0;
+        }
+    }
+}
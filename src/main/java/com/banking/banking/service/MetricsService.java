@@ -0,0 +1,109 @@
+package com.banking.banking.service;
+
+import com.banking.banking.engine.AccountEngine;
+import com.banking.banking.entity.Account;
+import com.banking.banking.entity.dto.HistoryStatsDto;
+import com.banking.banking.entity.dto.LatencyDto;
+import com.banking.banking.entity.dto.MetricsDto;
+import com.banking.banking.entity.enums.OperationType;
+import com.banking.banking.metrics.LatencyHistogram;
+import com.banking.banking.metrics.OperationMetrics;
+import com.banking.banking.metrics.RejectionReason;
+import com.banking.banking.repository.AccountRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Builds a point-in-time view of the operation metrics. All aggregation happens here, at read time,
+ * so that the recording side stays a handful of counter increments.
+ */
+@AllArgsConstructor
+@Service
+public class MetricsService {
+
+    static final int LARGEST_HISTORIES = 10;
+
+    private final OperationMetrics operationMetrics;
+    private final AccountEngine accountEngine;
+    private final AccountRepository accountRepository;
+
+    public MetricsDto getMetrics() {
+        Map<String, LatencyDto> latencies = new LinkedHashMap<>();
+        for (OperationType type : OperationType.values()) {
+            latencies.put("operation." + type.name(), toDto(operationMetrics.operationLatency(type)));
+        }
+        latencies.put("lookup", toDto(operationMetrics.lookupLatency()));
+        latencies.put("validation", toDto(operationMetrics.validationLatency()));
+
+        Map<String, Long> rejections = new LinkedHashMap<>();
+        for (RejectionReason reason : RejectionReason.values()) {
+            rejections.put(reason.name(), operationMetrics.rejections(reason));
+        }
+
+        return MetricsDto.builder()
+                .latencies(latencies)
+                .rejections(rejections)
+                .contentions(accountEngine.contentions())
+                .histories(getHistoryStats())
+                .build();
+    }
+
+    private HistoryStatsDto getHistoryStats() {
+        long accounts = 0;
+        long operations = 0;
+        long maxOperations = 0;
+        // sizes are read once per account: histories keep growing while the queue is ordered by them
+        PriorityQueue<HistorySize> largest = new PriorityQueue<>(Comparator.comparingInt(history -> history.size));
+        for (Account account : accountRepository.findAll()) {
+            int size = account.getHistory().size();
+            accounts++;
+            operations += size;
+            maxOperations = Math.max(maxOperations, size);
+            if (largest.size() < LARGEST_HISTORIES) {
+                largest.add(new HistorySize(account.getId(), size));
+            } else if (size > largest.peek().size) {
+                largest.poll();
+                largest.add(new HistorySize(account.getId(), size));
+            }
+        }
+
+        Map<Long, Integer> largestSizes = new LinkedHashMap<>();
+        largest.stream()
+                .sorted(Comparator.comparingInt((HistorySize history) -> history.size).reversed())
+                .forEach(history -> largestSizes.put(history.accountId, history.size));
+        return HistoryStatsDto.builder()
+                .accounts(accounts)
+                .operations(operations)
+                .maxOperations(maxOperations)
+                .largest(largestSizes)
+                .build();
+    }
+
+    private static LatencyDto toDto(LatencyHistogram histogram) {
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        return LatencyDto.builder()
+                .count(snapshot.count())
+                .mean(snapshot.mean())
+                .p50(snapshot.percentile(50))
+                .p90(snapshot.percentile(90))
+                .p99(snapshot.percentile(99))
+                .p999(snapshot.percentile(99.9))
+                .max(snapshot.max())
+                .build();
+    }
+
+    private static final class HistorySize {
+        final long accountId;
+        final int size;
+
+        HistorySize(long accountId, int size) {
+            this.accountId = accountId;
+            this.size = size;
+        }
+    }
+}
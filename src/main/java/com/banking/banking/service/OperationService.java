@@ -2,20 +2,35 @@ package com.banking.banking.service;
 
 import com.banking.banking.converter.OperationConverter;
 import com.banking.banking.converter.OperationDtoConverter;
+import com.banking.banking.engine.AccountEngine;
 import com.banking.banking.entity.Account;
 import com.banking.banking.entity.Operation;
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.entity.OperationSlice;
 import com.banking.banking.entity.dto.OperationDto;
+import com.banking.banking.entity.dto.OperationPageDto;
+import com.banking.banking.entity.dto.OperationResultDto;
+import com.banking.banking.entity.dto.TransferDto;
 import com.banking.banking.entity.enums.OperationType;
+import com.banking.banking.event.OperationEventBus;
 import com.banking.banking.exception.AccountNotFoundException;
+import com.banking.banking.exception.OperationRejectedException;
+import com.banking.banking.metrics.OperationMetrics;
+import com.banking.banking.metrics.RejectionReason;
 import com.banking.banking.repository.AccountRepository;
+import com.banking.banking.repository.OperationIdGenerator;
 import lombok.AllArgsConstructor;
-import lombok.NoArgsConstructor;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 import static com.banking.banking.exception.Messages.*;
 
@@ -23,47 +38,305 @@ import static com.banking.banking.exception.Messages.*;
 @Service
 public class OperationService {
 
-    private final AccountRepository accountRepository;
+    public static final int MAX_PAGE_SIZE = 1000;
 
+    private final AccountRepository accountRepository;
+    private final AccountEngine accountEngine;
+    private final OperationMetrics operationMetrics;
+    private final OperationEventBus operationEventBus;
+    private final OperationIdGenerator operationIdGenerator;
 
     public OperationDto processOperation(OperationDto operationDto) {
+        long start = System.nanoTime();
         // Get on map
-        Account account = accountRepository.findAccountById(operationDto.getAccountId())
-                .orElseThrow(() -> new AccountNotFoundException(String.format(ACCOUNT_NOT_FOUND, operationDto.getAccountId())));
+        Account account = accountRepository.findAccountById(operationDto.getAccountId()).orElse(null);
+        long found = System.nanoTime();
+        operationMetrics.recordLookup(found - start);
+        if (account == null) {
+            operationMetrics.reject(RejectionReason.ACCOUNT_NOT_FOUND);
+            throw new AccountNotFoundException(operationDto.getAccountId());
+        }
 
-        validateOperation(operationDto, account);
+        validateAmount(operationDto);
+        Operation operation = convert(operationDto);
+        operation.setAccountId(account.getId());
+        operationMetrics.recordValidation(System.nanoTime() - found);
 
-        if (operationDto.getType().equals(OperationType.WITHDRAW.name())) {
-            account.setBalance(account.getBalance() - operationDto.getBalance());
-        } else {
-            account.setBalance(account.getBalance() + operationDto.getBalance());
+        accountEngine.execute(account.getId(), () -> apply(operationDto, operation, account));
+        operationMetrics.recordOperation(operation.getType(), System.nanoTime() - start);
+        return operationDto;
+    }
+
+    /**
+     * Moves money between two accounts as one atomic step: both accounts are held by the engine while
+     * the source is debited and the destination credited, and both legs are journaled as a linked
+     * pair. Each account records a {@link OperationType#TRANSFER} entry, negative on the source, and
+     * both entries share the transfer's id.
+     */
+    public TransferDto transfer(TransferDto transferDto) {
+        long start = System.nanoTime();
+        Account from = findAccount(transferDto.getFromAccountId());
+        Account to = findAccount(transferDto.getToAccountId());
+        long found = System.nanoTime();
+        operationMetrics.recordLookup(found - start);
+
+        if (from.getId().equals(to.getId())) {
+            operationMetrics.reject(RejectionReason.INVALID_OPERATION);
+            throw OperationRejectedException.SAME_ACCOUNT;
         }
+        long amount = transferDto.getAmount();
+        validateAmount(amount);
+        operationMetrics.recordValidation(System.nanoTime() - found);
 
-        Operation operation = OperationConverter.convert(operationDto);
-        operation.setAccount(account);
-        account.getOperations().add(operation);
+        long id = accountEngine.execute(from.getId(), to.getId(), () -> {
+            // both sides are checked before anything is journaled or applied, so neither can fail halfway
+            validateBalance(from, amount);
+            validateCredit(to, amount);
+            long transferId = operationIdGenerator.next();
+            long timestamp = OperationIdGenerator.timestamp(transferId);
+            accountRepository.persistTransfer(transferId, from.getId(), to.getId(), amount);
+            transferDto.setFromBalance(from.apply(transferId, OperationType.TRANSFER, -amount, timestamp));
+            transferDto.setToBalance(to.apply(transferId, OperationType.TRANSFER, amount, timestamp));
+            operationEventBus.publish(from.getId(), transferId, OperationType.TRANSFER, -amount, transferDto.getFromBalance(), timestamp);
+            operationEventBus.publish(to.getId(), transferId, OperationType.TRANSFER, amount, transferDto.getToBalance(), timestamp);
+            return transferId;
+        });
+        transferDto.setId(id);
+        transferDto.setOperationDate(OperationHistory.toDateTime(OperationIdGenerator.timestamp(id)));
+        operationMetrics.recordOperation(OperationType.TRANSFER, System.nanoTime() - start);
+        return transferDto;
+    }
 
-        return operationDto;
+    /**
+     * Same as {@link #processOperation} on the application task executor, which runs on virtual threads
+     * when {@code spring.threads.virtual.enabled} is set.
+     */
+    @Async
+    public CompletableFuture<OperationDto> processOperationAsync(OperationDto operationDto) {
+        return CompletableFuture.completedFuture(processOperation(operationDto));
+    }
+
+    /**
+     * Applies a batch of operations, grouped by account so that each account is locked once for all of
+     * its items. Items are applied in request order within an account, and a rejected item never fails
+     * the rest of the batch.
+     */
+    public List<OperationResultDto> processOperations(List<OperationDto> operationDtos) {
+        OperationResultDto[] results = new OperationResultDto[operationDtos.size()];
+        Map<Long, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < operationDtos.size(); i++) {
+            groups.computeIfAbsent(operationDtos.get(i).getAccountId(), id -> new ArrayList<>()).add(i);
+        }
+
+        groups.forEach((accountId, indexes) -> {
+            long start = System.nanoTime();
+            Optional<Account> found = Optional.ofNullable(accountId).flatMap(accountRepository::findAccountById);
+            operationMetrics.recordLookup(System.nanoTime() - start);
+            if (found.isEmpty()) {
+                AccountNotFoundException notFound = new AccountNotFoundException(accountId);
+                indexes.forEach(i -> {
+                    operationMetrics.reject(RejectionReason.ACCOUNT_NOT_FOUND);
+                    results[i] = failure(i, operationDtos.get(i), notFound);
+                });
+                return;
+            }
+            Account account = found.get();
+
+            Operation[] operations = new Operation[indexes.size()];
+            for (int k = 0; k < indexes.size(); k++) {
+                int i = indexes.get(k);
+                try {
+                    validateAmount(operationDtos.get(i));
+                    operations[k] = convert(operationDtos.get(i));
+                    operations[k].setAccountId(accountId);
+                } catch (RuntimeException e) {
+                    results[i] = failure(i, operationDtos.get(i), e);
+                }
+            }
+
+            accountEngine.execute(accountId, () -> {
+                for (int k = 0; k < operations.length; k++) {
+                    if (operations[k] == null) {
+                        continue;
+                    }
+                    int i = indexes.get(k);
+                    try {
+                        apply(operationDtos.get(i), operations[k], account);
+                        results[i] = OperationResultDto.builder().index(i).success(true).operation(operationDtos.get(i)).build();
+                    } catch (RuntimeException e) {
+                        // a failure such as a journal write error only fails its own item
+                        results[i] = failure(i, operationDtos.get(i), e);
+                    }
+                }
+                return null;
+            });
+        });
+
+        return Arrays.asList(results);
     }
 
     public List<OperationDto> getOperationsByAccountId(Long accountId) {
+        return getOperationsByAccountId(accountId, null, null, null);
+    }
+
+    /**
+     * Returns the operations recorded between {@code from} and {@code to}, both inclusive, optionally
+     * of one type only; null bounds are open. The history is sorted by time, so the matching slice is
+     * found by binary search and only the operations in it are materialized.
+     */
+    public List<OperationDto> getOperationsByAccountId(Long accountId, LocalDateTime from, LocalDateTime to, OperationType type) {
+        OperationSlice slice = getOperationSlice(accountId, from, to, type);
+        List<OperationDto> operations = new ArrayList<>(type == null ? slice.getTo() - slice.getFrom() : 16);
+        for (int i = slice.getFrom(); i < slice.getTo(); i++) {
+            if (slice.includes(i)) {
+                operations.add(OperationDtoConverter.convert(slice.getHistory().get(i, slice.getAccountId())));
+            }
+        }
+        return operations;
+    }
+
+    /**
+     * Same selection as {@link #getOperationsByAccountId(Long, LocalDateTime, LocalDateTime, OperationType)}
+     * without materializing anything, for writers that read the history directly.
+     */
+    public OperationSlice getOperationSlice(Long accountId, LocalDateTime from, LocalDateTime to, OperationType type) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException(INVALID_DATE_RANGE);
+        }
+        Account account = accountRepository.findAccountById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(accountId));
+
+        OperationHistory history = account.getHistory();
+        int size = history.size();
+        int first = from == null ? 0 : Math.min(history.countUntil(OperationHistory.toEpochMillis(from) - 1), size);
+        int last = to == null ? size : Math.min(history.countUntil(OperationHistory.toEpochMillis(to)), size);
+        return new OperationSlice(account.getId(), history, first, Math.max(first, last), type);
+    }
+
+    /**
+     * Id of the last operation of the account, 0 before the first one. Ids keep increasing across
+     * restarts, so an unchanged id means an unchanged history even when the server restarted meanwhile.
+     */
+    public long getLastOperationId(Long accountId) {
+        OperationHistory history = accountRepository.findAccountById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(accountId))
+                .getHistory();
+        int size = history.size();
+        return size == 0 ? 0 : history.id(size - 1);
+    }
+
+    @Async
+    public CompletableFuture<List<OperationDto>> getOperationsByAccountIdAsync(Long accountId) {
+        return CompletableFuture.completedFuture(getOperationsByAccountId(accountId));
+    }
+
+    /**
+     * Returns up to {@code limit} operations following the {@code after} cursor. The cursor is the id
+     * of the last operation already read; ids increase along the history, so the next page is found
+     * by binary search and stays stable while new operations are appended. History reads never take
+     * the account lock.
+     */
+    public OperationPageDto getOperationsPage(Long accountId, long after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException(String.format(INVALID_PAGE_LIMIT, MAX_PAGE_SIZE));
+        }
+        if (after < 0) {
+            throw new IllegalArgumentException(INVALID_CURSOR);
+        }
         Account account = accountRepository.findAccountById(accountId)
-                .orElseThrow(() -> new AccountNotFoundException(String.format(ACCOUNT_NOT_FOUND, accountId)));
+                .orElseThrow(() -> new AccountNotFoundException(accountId));
+
+        OperationHistory history = account.getHistory();
+        int size = history.size();
+        int from = history.countUpToId(after);
+        int to = (int) Math.min((long) from + limit, size);
+        List<OperationDto> operations = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            operations.add(OperationDtoConverter.convert(account.getOperation(i)));
+        }
 
-        return account.getOperations().stream()
-                .map(OperationDtoConverter::convert)
-                .collect(Collectors.toList());
+        return OperationPageDto.builder()
+                .operations(operations)
+                .nextCursor(to < size ? history.id(to - 1) : null)
+                .build();
     }
 
-    private void validateOperation(OperationDto operationDto, Account account) {
-        if (operationDto.getAmount() <= 0) {
-            throw new IllegalArgumentException(AMOUNT_MUST_BE_GREATER_THAN_0);
+    // Must run inside the account's engine lock, which keeps ids increasing along the history.
+    // The clock is read once, by the id generator, and the time stored is the one carried by the id.
+    private long apply(OperationDto operationDto, Operation operation, Account account) {
+        validateBalance(operation, account);
+        long id = operationIdGenerator.next();
+        long timestamp = OperationIdGenerator.timestamp(id);
+        operation.setId(id);
+        accountRepository.persist(operation);
+        long balance = account.apply(id, operation.getType(), operation.getAmount(), timestamp);
+        operationDto.setId(id);
+        operationDto.setBalance(balance);
+        operationDto.setOperationDate(OperationHistory.toDateTime(timestamp));
+        operationEventBus.publish(account.getId(), id, operation.getType(), operation.getAmount(), balance, timestamp);
+        return balance;
+    }
+
+    private Account findAccount(Long accountId) {
+        Account account = accountId == null ? null : accountRepository.findAccountById(accountId).orElse(null);
+        if (account == null) {
+            operationMetrics.reject(RejectionReason.ACCOUNT_NOT_FOUND);
+            throw new AccountNotFoundException(accountId);
         }
+        return account;
+    }
 
-        if (operationDto.getType().equals(OperationType.WITHDRAW.name())) {
-            if (account.getBalance() <= operationDto.getAmount()) {
-                throw new IllegalArgumentException(String.format(INSUFFICIENT_BALANCE, account.getBalance()));
-            }
+    private Operation convert(OperationDto operationDto) {
+        Operation operation;
+        try {
+            operation = OperationConverter.convert(operationDto);
+        } catch (RuntimeException e) {
+            operationMetrics.reject(RejectionReason.INVALID_OPERATION);
+            throw e;
+        }
+        if (operation.getType() == OperationType.TRANSFER) {
+            operationMetrics.reject(RejectionReason.INVALID_OPERATION);
+            throw OperationRejectedException.TRANSFER_TYPE_NOT_SUPPORTED;
+        }
+        return operation;
+    }
+
+    private OperationResultDto failure(int index, OperationDto operationDto, RuntimeException error) {
+        return OperationResultDto.builder().index(index).success(false).operation(operationDto).error(error).build();
+    }
+
+    private void validateAmount(OperationDto operationDto) {
+        validateAmount(operationDto.getAmount());
+    }
+
+    private void validateAmount(long amount) {
+        if (amount <= 0) {
+            operationMetrics.reject(RejectionReason.INVALID_AMOUNT);
+            throw OperationRejectedException.INVALID_AMOUNT;
+        }
+    }
+
+    // before the operation is journaled, so that replay never meets a record it cannot apply
+    private void validateBalance(Operation operation, Account account) {
+        if (operation.getType() == OperationType.WITHDRAW) {
+            validateBalance(account, operation.getAmount());
+        } else {
+            validateCredit(account, operation.getAmount());
+        }
+    }
+
+    private void validateBalance(Account account, long amount) {
+        if (account.getBalance() <= amount) {
+            operationMetrics.reject(RejectionReason.INSUFFICIENT_BALANCE);
+            throw OperationRejectedException.insufficientBalance(account.getBalance());
+        }
+    }
+
+    // amounts are positive, so the subtraction cannot overflow
+    private void validateCredit(Account account, long amount) {
+        if (account.getBalance() > Long.MAX_VALUE - amount) {
+            operationMetrics.reject(RejectionReason.INVALID_AMOUNT);
+            throw OperationRejectedException.OVERFLOW;
         }
     }
 
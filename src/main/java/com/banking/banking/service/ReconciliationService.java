@@ -0,0 +1,159 @@
+package com.banking.banking.service;
+
+import com.banking.banking.config.BankingProperties;
+import com.banking.banking.engine.AccountEngine;
+import com.banking.banking.entity.Account;
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.entity.dto.DriftDto;
+import com.banking.banking.entity.dto.ReconciliationDto;
+import com.banking.banking.repository.AccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Checks that every balance still equals its opening balance plus the net amount of its history,
+ * recomputed from the individual operations rather than from the history checkpoints.
+ * <p>
+ * Accounts are split across a fork-join pool. Each one is snapshotted without taking its engine lock,
+ * which in sharded mode would queue behind the shard's writes: the version, balance and history size are
+ * read and kept only if the version did not move and the size matches it, otherwise an operation was
+ * being applied and the read is retried. An account still being written after
+ * {@value #MAX_SNAPSHOT_ATTEMPTS} attempts is read under its engine lock instead. The history prefix is
+ * then summed, also without any lock.
+ */
+@Slf4j
+@Service
+public class ReconciliationService {
+
+    static final int MAX_REPORTED_DRIFTS = 1000;
+    private static final int LEAF_SIZE = 8192;
+    private static final int MAX_SNAPSHOT_ATTEMPTS = 1000;
+
+    private final AccountRepository accountRepository;
+    private final AccountEngine accountEngine;
+    private final int parallelism;
+    private volatile ReconciliationDto lastReport;
+
+    public ReconciliationService(AccountRepository accountRepository, AccountEngine accountEngine, BankingProperties properties) {
+        this.accountRepository = accountRepository;
+        this.accountEngine = accountEngine;
+        this.parallelism = properties.getReconciliation().getParallelism();
+    }
+
+    @Scheduled(cron = "${banking.reconciliation.cron:-}")
+    public void scheduledReconcile() {
+        ReconciliationDto report = reconcile();
+        if (report.getDrifted() > 0) {
+            log.warn("Reconciliation found {} drifted accounts out of {}", report.getDrifted(), report.getAccounts());
+        }
+    }
+
+    public ReconciliationDto reconcile() {
+        long start = System.nanoTime();
+        Account[] accounts = accountRepository.findAll().toArray(new Account[0]);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        Result result;
+        try {
+            result = pool.invoke(new ReconcileTask(accounts, 0, accounts.length));
+        } finally {
+            pool.shutdown();
+        }
+        ReconciliationDto report = ReconciliationDto.builder()
+                .accounts(accounts.length)
+                .operations(result.operations)
+                .drifted(result.drifted)
+                .durationMillis((System.nanoTime() - start) / 1_000_000)
+                .completedAt(LocalDateTime.now())
+                .drifts(result.drifts)
+                .build();
+        lastReport = report;
+        return report;
+    }
+
+    public ReconciliationDto getLastReport() {
+        return lastReport;
+    }
+
+    private Result reconcile(Account account, Result result) {
+        OperationHistory history = account.getHistory();
+        long version;
+        long balance;
+        int size;
+        for (int attempt = 1; ; attempt++) {
+            version = account.getVersion();
+            // the balance is written after the history and before the version
+            balance = account.getBalance();
+            size = history.size();
+            if (account.getVersion() == version && size == account.getLoadedOperations() + version) {
+                break;
+            }
+            if (attempt == MAX_SNAPSHOT_ATTEMPTS) {
+                long[] locked = accountEngine.execute(account.getId(), () -> new long[]{account.getBalance(), history.size()});
+                balance = locked[0];
+                size = (int) locked[1];
+                break;
+            }
+            Thread.onSpinWait();
+        }
+        long expected = account.getOpeningBalance();
+        for (int i = 0; i < size; i++) {
+            expected += OperationHistory.signedAmount(history.type(i), history.amount(i));
+        }
+        result.operations += size;
+        if (expected != balance) {
+            result.drifted++;
+            if (result.drifts.size() < MAX_REPORTED_DRIFTS) {
+                result.drifts.add(DriftDto.builder().accountId(account.getId()).balance(balance).expectedBalance(expected).build());
+            }
+        }
+        return result;
+    }
+
+    private static final class Result {
+        long operations;
+        long drifted;
+        final List<DriftDto> drifts = new ArrayList<>();
+
+        Result merge(Result other) {
+            operations += other.operations;
+            drifted += other.drifted;
+            drifts.addAll(other.drifts.subList(0, Math.min(other.drifts.size(), MAX_REPORTED_DRIFTS - drifts.size())));
+            return this;
+        }
+    }
+
+    private final class ReconcileTask extends RecursiveTask<Result> {
+        private final Account[] accounts;
+        private final int from;
+        private final int to;
+
+        ReconcileTask(Account[] accounts, int from, int to) {
+            this.accounts = accounts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from <= LEAF_SIZE) {
+                Result result = new Result();
+                for (int i = from; i < to; i++) {
+                    reconcile(accounts[i], result);
+                }
+                return result;
+            }
+            int middle = (from + to) >>> 1;
+            ReconcileTask left = new ReconcileTask(accounts, from, middle);
+            left.fork();
+            Result right = new ReconcileTask(accounts, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+}
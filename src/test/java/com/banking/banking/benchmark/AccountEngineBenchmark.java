@@ -0,0 +1,77 @@
+package com.banking.banking.benchmark;
+
+import com.banking.banking.config.BankingProperties;
+import com.banking.banking.engine.AccountEngine;
+import com.banking.banking.engine.ShardedAccountEngine;
+import com.banking.banking.engine.StripedLockAccountEngine;
+import com.banking.banking.entity.Account;
+import com.banking.banking.entity.Money;
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.entity.dto.OperationDto;
+import com.banking.banking.entity.enums.OperationType;
+import com.banking.banking.event.OperationEventBus;
+import com.banking.banking.metrics.OperationMetrics;
+import com.banking.banking.repository.AccountRepository;
+import com.banking.banking.repository.OperationIdGenerator;
+import com.banking.banking.service.OperationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposit throughput across {@value #ACCOUNTS} accounts from 8 client threads, for the locking engine
+ * and the sharded engine with 1, 2, 4 and 8 shards. Shard scaling is bounded by the cores available.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+@Threads(8)
+public class AccountEngineBenchmark {
+
+    static final int ACCOUNTS = 10_000;
+
+    @Param({"locking", "sharded-1", "sharded-2", "sharded-4", "sharded-8"})
+    String engine;
+
+    private AccountEngine accountEngine;
+    private OperationService operationService;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        AccountRepository accountRepository = new AccountRepository();
+        for (long id = 0; id < ACCOUNTS; id++) {
+            accountRepository.save(Account.builder().id(id).balance(0).history(new OperationHistory()).build());
+        }
+        accountEngine = engine.equals("locking")
+                ? new StripedLockAccountEngine()
+                : new ShardedAccountEngine(Integer.parseInt(engine.substring("sharded-".length())), 1024);
+        operationService = new OperationService(accountRepository, accountEngine, new OperationMetrics(),
+                new OperationEventBus(new BankingProperties()), new OperationIdGenerator(0));
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (accountEngine instanceof ShardedAccountEngine sharded) {
+            sharded.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        final SplittableRandom random = new SplittableRandom();
+        final OperationDto operation = OperationDto.builder()
+                .type(OperationType.DEPOSIT.name())
+                .amount(Money.of("1.00"))
+                .build();
+    }
+
+    @Benchmark
+    public OperationDto deposit(Client client) {
+        client.operation.setAccountId((long) client.random.nextInt(ACCOUNTS));
+        return operationService.processOperation(client.operation);
+    }
+}
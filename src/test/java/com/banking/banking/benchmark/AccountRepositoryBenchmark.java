@@ -0,0 +1,51 @@
+package com.banking.banking.benchmark;
+
+import com.banking.banking.entity.Account;
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.repository.AccountRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random lookups over {@value #ACCOUNTS} accounts, so that most of them miss the CPU caches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 3, jvmArgsAppend = "-Xmx2g")
+public class AccountRepositoryBenchmark {
+
+    static final int ACCOUNTS = 1_000_000;
+    private static final int LOOKUPS = 1 << 16;
+
+    private AccountRepository accountRepository;
+    private Long[] ids;
+
+    @Setup
+    public void setUp() {
+        accountRepository = new AccountRepository();
+        for (long id = 1; id <= ACCOUNTS; id++) {
+            accountRepository.save(Account.builder().id(id).balance(0).history(new OperationHistory()).build());
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        ids = new Long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            ids[i] = random.nextLong(1, ACCOUNTS + 1);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public Optional<Account> findAccountById(Cursor cursor) {
+        return accountRepository.findAccountById(ids[cursor.next++ & (LOOKUPS - 1)]);
+    }
+}
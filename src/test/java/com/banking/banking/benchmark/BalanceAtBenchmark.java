@@ -0,0 +1,64 @@
+package com.banking.banking.benchmark;
+
+import com.banking.banking.engine.StripedLockAccountEngine;
+import com.banking.banking.entity.Account;
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.entity.dto.BalanceDto;
+import com.banking.banking.entity.enums.OperationType;
+import com.banking.banking.repository.AccountRepository;
+import com.banking.banking.service.AccountService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance-as-of queries at random points in histories of growing length; the score should not grow
+ * with the history.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BalanceAtBenchmark {
+
+    private static final int QUERIES = 1 << 12;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"1000", "100000", "1000000"})
+    public int operations;
+
+    private AccountService accountService;
+    private LocalDateTime[] times;
+
+    @Setup
+    public void setUp() {
+        Account account = Account.builder().id(1L).balance(0).history(new OperationHistory()).build();
+        long start = OperationHistory.toEpochMillis(START);
+        for (int i = 0; i < operations; i++) {
+            account.apply(0, i % 3 == 0 ? OperationType.WITHDRAW : OperationType.DEPOSIT, 100, start + i * 1_000L);
+        }
+        AccountRepository accountRepository = new AccountRepository();
+        accountRepository.save(account);
+        accountService = new AccountService(accountRepository, new StripedLockAccountEngine());
+
+        SplittableRandom random = new SplittableRandom(42);
+        times = new LocalDateTime[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            times[i] = START.plusSeconds(random.nextInt(operations));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public BalanceDto balanceAt(Cursor cursor) {
+        return accountService.getBalance(1L, times[cursor.next++ & (QUERIES - 1)]);
+    }
+}
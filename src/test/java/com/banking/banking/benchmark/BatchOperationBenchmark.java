@@ -0,0 +1,90 @@
+package com.banking.banking.benchmark;
+
+import com.banking.banking.BankingApplication;
+import com.banking.banking.entity.Account;
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.repository.AccountRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares posting {@value #BATCH_SIZE} deposits one request at a time against a single batch request,
+ * end to end over HTTP. Scores are per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchOperationBenchmark {
+
+    static final int BATCH_SIZE = 100;
+    private static final int ACCOUNTS = 10;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI operationsUri;
+    private URI batchUri;
+    private String[] singleBodies;
+    private String batchBody;
+
+    @Setup
+    public void setUp() {
+        context = SpringApplication.run(BankingApplication.class, "--server.port=0", "--logging.level.root=WARN");
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+        for (long id = 1_000; id < 1_000 + ACCOUNTS; id++) {
+            accountRepository.save(Account.builder().id(id).balance(0).history(new OperationHistory()).build());
+        }
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        operationsUri = URI.create("http://localhost:" + port + "/api/v1/operations");
+        batchUri = URI.create("http://localhost:" + port + "/api/v1/operations/batch");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        singleBodies = new String[BATCH_SIZE];
+        StringBuilder batch = new StringBuilder("[");
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            singleBodies[i] = "{\"accountId\":" + (1_000 + i % ACCOUNTS) + ",\"type\":\"DEPOSIT\",\"amount\":1.5}";
+            batch.append(i == 0 ? "" : ",").append(singleBodies[i]);
+        }
+        batchBody = batch.append(']').toString();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int singlePosts() throws Exception {
+        int status = 0;
+        for (String body : singleBodies) {
+            status += post(operationsUri, body).statusCode();
+        }
+        return status;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int batchPost() throws Exception {
+        return post(batchUri, batchBody).statusCode();
+    }
+
+    private HttpResponse<Void> post(URI uri, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+}
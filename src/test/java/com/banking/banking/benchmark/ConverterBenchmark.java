@@ -0,0 +1,45 @@
+package com.banking.banking.benchmark;
+
+import com.banking.banking.converter.OperationConverter;
+import com.banking.banking.converter.OperationDtoConverter;
+import com.banking.banking.entity.Money;
+import com.banking.banking.entity.Operation;
+import com.banking.banking.entity.dto.OperationDto;
+import com.banking.banking.entity.enums.OperationType;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+public class ConverterBenchmark {
+
+    private final OperationDto operationDto = OperationDto.builder()
+            .accountId(1L)
+            .type(OperationType.WITHDRAW.name())
+            .amount(Money.of("42.10"))
+            .build();
+
+    private final Operation operation = Operation.builder()
+            .id(7L)
+            .accountId(1L)
+            .type(OperationType.DEPOSIT)
+            .amount(Money.of("42.10"))
+            .operationDate(LocalDateTime.of(2024, 1, 1, 12, 0))
+            .build();
+
+    @Benchmark
+    public Operation operationConverter() {
+        return OperationConverter.convert(operationDto);
+    }
+
+    @Benchmark
+    public OperationDto operationDtoConverter() {
+        return OperationDtoConverter.convert(operation);
+    }
+}
@@ -0,0 +1,93 @@
+package com.banking.banking.benchmark;
+
+import com.banking.banking.entity.Money;
+import com.banking.banking.entity.Operation;
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.entity.enums.OperationType;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the retained heap of 10M operations kept as a {@code List<Operation>}, the previous layout,
+ * against the columnar {@link OperationHistory}, all on heap and with only the last 16384 operations hot.
+ * Heap usage cannot be measured from inside JMH, so this
+ * is a plain main:
+ *
+ * <pre>
+ * ./mvnw -q test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-Xmx4g -cp %classpath com.banking.banking.benchmark.HistoryFootprintBenchmark"
+ * </pre>
+ */
+public class HistoryFootprintBenchmark {
+
+    private static final int OPERATIONS = 10_000_000;
+    private static final int HOT_OPERATIONS = 16_384;
+
+    public static void main(String[] args) {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : OPERATIONS;
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        long baseline = usedHeap();
+        List<Operation> objects = new ArrayList<>();
+        for (int i = 0; i < operations; i++) {
+            objects.add(Operation.builder()
+                    .id((long) i + 1_000_000)
+                    .accountId(1L)
+                    .type(i % 2 == 0 ? OperationType.DEPOSIT : OperationType.WITHDRAW)
+                    .amount(Money.of("10.25"))
+                    .operationDate(start.plusSeconds(i))
+                    .build());
+        }
+        long objectBytes = usedHeap() - baseline;
+        report("List<Operation>", objectBytes, objects.size());
+        objects = null;
+
+        baseline = usedHeap();
+        OperationHistory history = new OperationHistory();
+        long startMillis = OperationHistory.toEpochMillis(start);
+        for (int i = 0; i < operations; i++) {
+            history.append((long) i + 1_000_000, i % 2 == 0 ? OperationType.DEPOSIT : OperationType.WITHDRAW,
+                    1_025, startMillis + i * 1_000L);
+        }
+        long columnarBytes = usedHeap() - baseline;
+        report("OperationHistory", columnarBytes, history.size());
+
+        System.out.printf("reduction: %.1fx%n", (double) objectBytes / columnarBytes);
+        history = null;
+
+        baseline = usedHeap();
+        long directBaseline = directMemory();
+        OperationHistory tiered = new OperationHistory(HOT_OPERATIONS);
+        for (int i = 0; i < operations; i++) {
+            tiered.append((long) i + 1_000_000, i % 2 == 0 ? OperationType.DEPOSIT : OperationType.WITHDRAW,
+                    1_025, startMillis + i * 1_000L);
+        }
+        report("tiered, heap", usedHeap() - baseline, tiered.size());
+        report("tiered, off-heap", directMemory() - directBaseline, tiered.size());
+    }
+
+    private static long directMemory() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) {
+                return pool.getMemoryUsed();
+            }
+        }
+        return 0;
+    }
+
+    private static void report(String layout, long bytes, int operations) {
+        System.out.printf("%-18s %,14d bytes  %6.1f bytes/operation%n", layout, bytes, (double) bytes / operations);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
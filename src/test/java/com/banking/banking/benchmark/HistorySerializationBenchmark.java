@@ -0,0 +1,77 @@
+package com.banking.banking.benchmark;
+
+import com.banking.banking.config.BankingProperties;
+import com.banking.banking.converter.OperationSliceJsonHttpMessageConverter;
+import com.banking.banking.engine.StripedLockAccountEngine;
+import com.banking.banking.entity.Account;
+import com.banking.banking.entity.Money;
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.entity.enums.OperationType;
+import com.banking.banking.event.OperationEventBus;
+import com.banking.banking.metrics.OperationMetrics;
+import com.banking.banking.repository.AccountRepository;
+import com.banking.banking.repository.OperationIdGenerator;
+import com.banking.banking.service.OperationService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves a whole account history as JSON, the way {@code GET /api/v1/operations} does, into a discarding
+ * stream: through {@code OperationDto}s handed to Jackson, and written straight from the history by
+ * {@link OperationSliceJsonHttpMessageConverter}. Run with {@code -prof gc} for the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class HistorySerializationBenchmark {
+
+    private static final long ACCOUNT_ID = 1L;
+
+    @Param({"100000"})
+    int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final OutputStream out = StreamUtils.nonClosing(OutputStream.nullOutputStream());
+
+    private OperationService operationService;
+
+    @Setup
+    public void setUp() {
+        AccountRepository accountRepository = new AccountRepository();
+        Account account = accountRepository.save(Account.builder().id(ACCOUNT_ID).balance(0).history(new OperationHistory()).build());
+        OperationIdGenerator generator = new OperationIdGenerator(0);
+        for (int i = 0; i < size; i++) {
+            long id = generator.next();
+            account.apply(id, i % 3 == 2 ? OperationType.WITHDRAW : OperationType.DEPOSIT, Money.of("12.34") + i % 1000,
+                    OperationIdGenerator.timestamp(id) - (size - i) * 1_700L);
+        }
+        operationService = new OperationService(accountRepository, new StripedLockAccountEngine(), new OperationMetrics(),
+                new OperationEventBus(new BankingProperties()), generator);
+    }
+
+    @Benchmark
+    public void dtoList() throws IOException {
+        objectMapper.writeValue(out, operationService.getOperationsByAccountId(ACCOUNT_ID, null, null, null));
+    }
+
+    @Benchmark
+    public void streamed() throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            OperationSliceJsonHttpMessageConverter.write(operationService.getOperationSlice(ACCOUNT_ID, null, null, null), generator);
+        }
+    }
+}
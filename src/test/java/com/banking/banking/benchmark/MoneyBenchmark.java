@@ -0,0 +1,82 @@
+package com.banking.banking.benchmark;
+
+import com.banking.banking.entity.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Running balance with an overdraft check, as done by {@code processOperation}, over {@value #OPERATIONS}
+ * alternating deposits and withdrawals, using doubles, long minor units and BigDecimal. Run with
+ * {@code -prof gc} to see allocations per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    static final int OPERATIONS = 1_000;
+
+    private double[] doubleAmounts;
+    private long[] minorAmounts;
+    private BigDecimal[] decimalAmounts;
+
+    @Setup
+    public void setUp() {
+        doubleAmounts = new double[OPERATIONS];
+        minorAmounts = new long[OPERATIONS];
+        decimalAmounts = new BigDecimal[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) {
+            long cents = 1 + (i * 7919L) % 10_000;
+            minorAmounts[i] = cents;
+            doubleAmounts[i] = cents / 100.0;
+            decimalAmounts[i] = BigDecimal.valueOf(cents, Money.SCALE);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public double doubleBalance() {
+        double balance = 100.5;
+        for (int i = 0; i < OPERATIONS; i++) {
+            if ((i & 1) == 0) {
+                balance = balance + doubleAmounts[i];
+            } else if (balance > doubleAmounts[i]) {
+                balance = balance - doubleAmounts[i];
+            }
+        }
+        return balance;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public long longMinorUnitsBalance() {
+        long balance = 10_050;
+        for (int i = 0; i < OPERATIONS; i++) {
+            if ((i & 1) == 0) {
+                balance = Money.add(balance, minorAmounts[i]);
+            } else if (balance > minorAmounts[i]) {
+                balance = Money.subtract(balance, minorAmounts[i]);
+            }
+        }
+        return balance;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public BigDecimal bigDecimalBalance() {
+        BigDecimal balance = new BigDecimal("100.50");
+        for (int i = 0; i < OPERATIONS; i++) {
+            if ((i & 1) == 0) {
+                balance = balance.add(decimalAmounts[i]);
+            } else if (balance.compareTo(decimalAmounts[i]) > 0) {
+                balance = balance.subtract(decimalAmounts[i]);
+            }
+        }
+        return balance;
+    }
+}
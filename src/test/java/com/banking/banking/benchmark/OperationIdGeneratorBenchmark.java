@@ -0,0 +1,40 @@
+package com.banking.banking.benchmark;
+
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.repository.OperationIdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of stamping a write: an operation id, which also carries the operation time, against reading
+ * the clock as a {@link LocalDateTime} and converting it to epoch millis as writes used to, once on its
+ * own and once by four threads sharing one generator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperationIdGeneratorBenchmark {
+
+    private final OperationIdGenerator generator = new OperationIdGenerator(0);
+
+    @Benchmark
+    public long nextId() {
+        return generator.next();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long nextIdContended() {
+        return generator.next();
+    }
+
+    @Benchmark
+    public long localDateTimeNow() {
+        return OperationHistory.toEpochMillis(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,88 @@
+package com.banking.banking.benchmark;
+
+import com.banking.banking.config.BankingProperties;
+import com.banking.banking.engine.StripedLockAccountEngine;
+import com.banking.banking.entity.Account;
+import com.banking.banking.entity.Money;
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.entity.dto.OperationDto;
+import com.banking.banking.entity.enums.OperationType;
+import com.banking.banking.event.OperationEventBus;
+import com.banking.banking.metrics.OperationMetrics;
+import com.banking.banking.repository.AccountRepository;
+import com.banking.banking.repository.OperationIdGenerator;
+import com.banking.banking.service.OperationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+public class OperationServiceBenchmark {
+
+    private static final long ACCOUNT_ID = 1L;
+
+    @State(Scope.Benchmark)
+    public static class Service {
+        AccountRepository accountRepository;
+        OperationService operationService;
+
+        // The history only grows while benchmarking, so the account is recreated every iteration.
+        @Setup(Level.Iteration)
+        public void setUp() {
+            accountRepository = new AccountRepository();
+            accountRepository.save(Account.builder().id(ACCOUNT_ID).balance(0).history(new OperationHistory()).build());
+            operationService = new OperationService(accountRepository, new StripedLockAccountEngine(), new OperationMetrics(),
+                    new OperationEventBus(new BankingProperties()), new OperationIdGenerator(0));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Deposit {
+        final OperationDto operation = OperationDto.builder()
+                .accountId(ACCOUNT_ID)
+                .type(OperationType.DEPOSIT.name())
+                .amount(Money.of("1.25"))
+                .build();
+    }
+
+    @State(Scope.Benchmark)
+    public static class History {
+        @Param({"10", "1000", "100000", "1000000"})
+        int size;
+
+        OperationService operationService;
+
+        @Setup
+        public void setUp() {
+            AccountRepository accountRepository = new AccountRepository();
+            Account account = accountRepository.save(Account.builder().id(ACCOUNT_ID).balance(0).history(new OperationHistory()).build());
+            long timestamp = System.currentTimeMillis();
+            for (int i = 0; i < size; i++) {
+                account.apply(i + 1, i % 2 == 0 ? OperationType.DEPOSIT : OperationType.WITHDRAW, 100, timestamp + i);
+            }
+            operationService = new OperationService(accountRepository, new StripedLockAccountEngine(), new OperationMetrics(),
+                    new OperationEventBus(new BankingProperties()), new OperationIdGenerator(0));
+        }
+    }
+
+    @Benchmark
+    public OperationDto processOperation(Service service, Deposit deposit) {
+        return service.operationService.processOperation(deposit.operation);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public OperationDto processOperationContended(Service service, Deposit deposit) {
+        return service.operationService.processOperation(deposit.operation);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object getOperationsByAccountId(History history) {
+        return history.operationService.getOperationsByAccountId(ACCOUNT_ID);
+    }
+}
@@ -0,0 +1,52 @@
+package com.banking.banking.benchmark;
+
+import com.banking.banking.config.BankingProperties;
+import com.banking.banking.engine.StripedLockAccountEngine;
+import com.banking.banking.entity.Account;
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.entity.dto.ReconciliationDto;
+import com.banking.banking.entity.enums.OperationType;
+import com.banking.banking.repository.AccountRepository;
+import com.banking.banking.service.ReconciliationService;
+
+/**
+ * Reports the duration of a full reconciliation, by default over 10M accounts without history. Accounts
+ * without history share one empty history to keep the heap small; pass a number of operations per
+ * account to give each its own:
+ *
+ * <pre>
+ * ./mvnw -q test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-Xmx4g -cp %classpath com.banking.banking.benchmark.ReconciliationBenchmark 10000000 0 8"
+ * </pre>
+ */
+public class ReconciliationBenchmark {
+
+    private static final int ACCOUNTS = 10_000_000;
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : ACCOUNTS;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        int parallelism = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        AccountRepository repository = new AccountRepository();
+        OperationHistory empty = new OperationHistory();
+        for (int i = 0; i < count; i++) {
+            OperationHistory history = operations == 0 ? empty : new OperationHistory();
+            for (int k = 0; k < operations; k++) {
+                history.append(k + 1, OperationType.DEPOSIT, 100, 1_000L + k);
+            }
+            repository.save(Account.builder().id(i + 1L).balance(10_000L + operations * 100L).history(history).build());
+        }
+
+        BankingProperties properties = new BankingProperties();
+        properties.getReconciliation().setParallelism(parallelism);
+        ReconciliationService service = new ReconciliationService(repository, new StripedLockAccountEngine(), properties);
+        System.out.printf("%,d accounts, %d operations each, %d threads%n", count, operations, parallelism);
+        for (int run = 1; run <= RUNS; run++) {
+            ReconciliationDto report = service.reconcile();
+            System.out.printf("run %d: %,6d ms, %,d operations, %d drifted%n",
+                    run, report.getDurationMillis(), report.getOperations(), report.getDrifted());
+        }
+    }
+}
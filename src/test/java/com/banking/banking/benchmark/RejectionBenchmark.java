@@ -0,0 +1,88 @@
+package com.banking.banking.benchmark;
+
+import com.banking.banking.config.BankingProperties;
+import com.banking.banking.engine.StripedLockAccountEngine;
+import com.banking.banking.entity.Account;
+import com.banking.banking.entity.Money;
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.entity.dto.OperationDto;
+import com.banking.banking.entity.enums.OperationType;
+import com.banking.banking.event.OperationEventBus;
+import com.banking.banking.exception.AccountNotFoundException;
+import com.banking.banking.exception.GlobalExceptionHandler;
+import com.banking.banking.exception.OperationRejectedException;
+import com.banking.banking.metrics.OperationMetrics;
+import com.banking.banking.repository.AccountRepository;
+import com.banking.banking.repository.OperationIdGenerator;
+import com.banking.banking.service.OperationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares rejected operations, from the service call to the error response handed to the message
+ * converters, with the success path.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class RejectionBenchmark {
+
+    private static final long ACCOUNT_ID = 1L;
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private OperationService operationService;
+
+    private final OperationDto deposit = operation(ACCOUNT_ID, OperationType.DEPOSIT, "1.25");
+    private final OperationDto unknownAccount = operation(999L, OperationType.DEPOSIT, "1.25");
+    private final OperationDto overdraft = operation(ACCOUNT_ID, OperationType.WITHDRAW, "1000000.00");
+    private final OperationDto zeroAmount = operation(ACCOUNT_ID, OperationType.DEPOSIT, "0.00");
+
+    private static OperationDto operation(long accountId, OperationType type, String amount) {
+        return OperationDto.builder().accountId(accountId).type(type.name()).amount(Money.of(amount)).build();
+    }
+
+    // The history only grows while benchmarking, so the account is recreated every iteration.
+    @Setup(Level.Iteration)
+    public void setUp() {
+        AccountRepository accountRepository = new AccountRepository();
+        accountRepository.save(Account.builder().id(ACCOUNT_ID).balance(0).history(new OperationHistory()).build());
+        operationService = new OperationService(accountRepository, new StripedLockAccountEngine(), new OperationMetrics(),
+                new OperationEventBus(new BankingProperties()), new OperationIdGenerator(0));
+    }
+
+    @Benchmark
+    public Object success() {
+        return operationService.processOperation(deposit);
+    }
+
+    @Benchmark
+    public Object unknownAccount() {
+        try {
+            return operationService.processOperation(unknownAccount);
+        } catch (AccountNotFoundException e) {
+            return handler.handleAccountNotFoundException(e);
+        }
+    }
+
+    @Benchmark
+    public Object insufficientBalance() {
+        try {
+            return operationService.processOperation(overdraft);
+        } catch (OperationRejectedException e) {
+            return handler.handleOperationRejectedException(e);
+        }
+    }
+
+    @Benchmark
+    public Object invalidAmount() {
+        try {
+            return operationService.processOperation(zeroAmount);
+        } catch (OperationRejectedException e) {
+            return handler.handleOperationRejectedException(e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.banking.banking.benchmark;
+
+import com.banking.banking.entity.Account;
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.repository.AccountSnapshot;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.Map;
+
+/**
+ * Reports startup time and heap usage of loading an account snapshot, by default 10M accounts without
+ * history. Peak heap is the sum of the heap pools' peak usage during the load, so it includes the
+ * garbage created by parsing. Run once per format:
+ *
+ * <pre>
+ * ./mvnw -q test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-Xmx4g -cp %classpath com.banking.banking.benchmark.SnapshotLoadBenchmark BINARY 10000000"
+ * </pre>
+ */
+public class SnapshotLoadBenchmark {
+
+    private static final int ACCOUNTS = 10_000_000;
+
+    public static void main(String[] args) throws IOException {
+        AccountSnapshot.Format format = args.length > 0 ? AccountSnapshot.Format.valueOf(args[0]) : AccountSnapshot.Format.BINARY;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : ACCOUNTS;
+        int parallelism = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        Path file = Files.createTempFile("accounts", "." + format.name().toLowerCase());
+        try {
+            write(file, format, count);
+
+            long baseline = usedHeap();
+            ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+            long start = System.nanoTime();
+            Map<Long, Account> accounts = new AccountSnapshot(file, format, parallelism).load();
+            long elapsed = System.nanoTime() - start;
+            long peak = peakHeap();
+            long retained = usedHeap() - baseline;
+
+            System.out.printf("%s: %,d accounts from %,d bytes with %d threads%n", format, accounts.size(), Files.size(file), parallelism);
+            System.out.printf("load time     %,10d ms%n", elapsed / 1_000_000);
+            System.out.printf("peak heap     %,10d MB%n", peak >> 20);
+            System.out.printf("retained heap %,10d MB  (%.1f bytes/account)%n", retained >> 20, (double) retained / accounts.size());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void write(Path file, AccountSnapshot.Format format, int count) throws IOException {
+        if (format == AccountSnapshot.Format.CSV) {
+            try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+                writer.write("id,balance\n");
+                for (int i = 0; i < count; i++) {
+                    writer.write(Long.toString(i + 1L));
+                    writer.write(',');
+                    writer.write(Long.toString(i % 100_000));
+                    writer.write(".50\n");
+                }
+            }
+            return;
+        }
+        OperationHistory empty = new OperationHistory();
+        AccountSnapshot.writeBinary(file, new AbstractList<>() {
+            @Override
+            public Account get(int index) {
+                long balance = index % 100_000 * 100L + 50;
+                return Account.builder().id(index + 1L).balance(balance).openingBalance(balance).history(empty).build();
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        });
+    }
+
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,107 @@
+package com.banking.banking.benchmark;
+
+import com.banking.banking.BankingApplication;
+import jakarta.servlet.Filter;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test comparing the platform-thread Tomcat pool with virtual threads, for the blocking and the
+ * {@code /async} endpoints. Every request is held for {@value #DOWNSTREAM_MILLIS} ms by a servlet filter
+ * standing in for a blocking downstream call, which is what caps a thread-per-request pool. The filter
+ * also records how many requests the server was working on at once.
+ * <p>
+ * Virtual threads need a Java 21 runtime; the code itself compiles for 17:
+ *
+ * <pre>
+ * ./mvnw -q test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=$JAVA_21_HOME/bin/java \
+ *     -Dexec.args="-cp %classpath com.banking.banking.benchmark.VirtualThreadLoadTest"
+ * </pre>
+ */
+public class VirtualThreadLoadTest {
+
+    private static final int REQUESTS = 20_000;
+    private static final int CONCURRENCY = 1_000;
+    private static final long DOWNSTREAM_MILLIS = 20;
+
+    static final AtomicInteger inFlight = new AtomicInteger();
+    static final AtomicInteger maxInFlight = new AtomicInteger();
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-9s %-6s %10s %10s %10s %10s %12s%n", "threads", "path", "req/s", "p50 ms", "p99 ms", "max ms", "max in-flight");
+        for (boolean virtual : new boolean[]{false, true}) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(BankingApplication.class, DownstreamLatency.class)
+                    .run("--server.port=0", "--logging.level.root=WARN", "--spring.threads.virtual.enabled=" + virtual);
+            try {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                for (String path : new String[]{"", "/async"}) {
+                    run(virtual ? "virtual" : "platform", path, URI.create("http://localhost:" + port + "/api/v1/operations" + path));
+                }
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private static void run(String threads, String path, URI uri) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"accountId\":1,\"type\":\"DEPOSIT\",\"amount\":1.00}"))
+                .build();
+        maxInFlight.set(0);
+        long[] latencies = new long[REQUESTS];
+        Semaphore permits = new Semaphore(CONCURRENCY);
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[REQUESTS];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            permits.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        latencies[index] = System.nanoTime() - sent;
+                        permits.release();
+                    });
+        }
+        CompletableFuture.allOf(responses).join();
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        System.out.printf("%-9s %-6s %10.0f %10.1f %10.1f %10.1f %12d%n", threads, path.isEmpty() ? "/" : path,
+                REQUESTS / (elapsed / 1e9),
+                latencies[REQUESTS / 2] / 1e6, latencies[(int) (REQUESTS * 0.99)] / 1e6, latencies[REQUESTS - 1] / 1e6,
+                maxInFlight.get());
+    }
+
+    @Configuration
+    static class DownstreamLatency {
+        @Bean
+        Filter downstreamLatencyFilter() {
+            return (request, response, chain) -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(DOWNSTREAM_MILLIS);
+                    chain.doFilter(request, response);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            };
+        }
+    }
+}
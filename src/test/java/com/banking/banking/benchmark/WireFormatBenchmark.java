@@ -0,0 +1,107 @@
+package com.banking.banking.benchmark;
+
+import com.banking.banking.converter.OperationBinaryHttpMessageConverter;
+import com.banking.banking.entity.Money;
+import com.banking.banking.entity.dto.OperationDto;
+import com.banking.banking.entity.enums.OperationType;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes a single operation and a list of {@value #BATCH} with the binary wire format and
+ * with Jackson configured as Spring Boot does. Encoded sizes are printed once per fork.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final int BATCH = 100;
+    private static final TypeReference<List<OperationDto>> OPERATION_LIST = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private OperationDto operation;
+    private List<OperationDto> operations;
+    private byte[] binary;
+    private byte[] binaryList;
+    private byte[] json;
+    private byte[] jsonList;
+
+    @Setup
+    public void setUp() throws IOException {
+        operations = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            operations.add(OperationDto.builder()
+                    .id(1_000_000L + i)
+                    .accountId(42L)
+                    .type((i % 2 == 0 ? OperationType.DEPOSIT : OperationType.WITHDRAW).name())
+                    .amount(Money.of("125.40"))
+                    .balance(Money.of("10230.75"))
+                    .operationDate(LocalDateTime.of(2024, 3, 1, 9, 30, 15).plusSeconds(i * 37L))
+                    .build());
+        }
+        operation = operations.get(0);
+        binary = OperationBinaryHttpMessageConverter.encode(operation);
+        binaryList = OperationBinaryHttpMessageConverter.encode(operations);
+        json = objectMapper.writeValueAsBytes(operation);
+        jsonList = objectMapper.writeValueAsBytes(operations);
+        System.out.printf("%nbytes/operation: binary %.1f, json %.1f%n",
+                (double) binaryList.length / BATCH, (double) jsonList.length / BATCH);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return OperationBinaryHttpMessageConverter.encode(operation);
+    }
+
+    @Benchmark
+    public OperationDto binaryDecode() {
+        return OperationBinaryHttpMessageConverter.decode(binary);
+    }
+
+    @Benchmark
+    public byte[] binaryEncodeList() {
+        return OperationBinaryHttpMessageConverter.encode(operations);
+    }
+
+    @Benchmark
+    public List<OperationDto> binaryDecodeList() {
+        return OperationBinaryHttpMessageConverter.decodeList(binaryList);
+    }
+
+    @Benchmark
+    public byte[] jacksonEncode() throws IOException {
+        return objectMapper.writeValueAsBytes(operation);
+    }
+
+    @Benchmark
+    public OperationDto jacksonDecode() throws IOException {
+        return objectMapper.readValue(json, OperationDto.class);
+    }
+
+    @Benchmark
+    public byte[] jacksonEncodeList() throws IOException {
+        return objectMapper.writeValueAsBytes(operations);
+    }
+
+    @Benchmark
+    public List<OperationDto> jacksonDecodeList() throws IOException {
+        return objectMapper.readValue(jsonList, OPERATION_LIST);
+    }
+}
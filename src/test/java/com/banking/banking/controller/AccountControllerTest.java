@@ -0,0 +1,71 @@
+package com.banking.banking.controller;
+
+import com.banking.banking.entity.Money;
+import com.banking.banking.entity.dto.AccountSummaryDto;
+import com.banking.banking.entity.dto.BalanceDto;
+import com.banking.banking.entity.dto.OperationTotalsDto;
+import com.banking.banking.exception.AccountNotFoundException;
+import com.banking.banking.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static com.banking.banking.exception.Messages.ACCOUNT_NOT_FOUND;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AccountController.class)
+class AccountControllerTest {
+
+    @MockitoBean
+    private AccountService accountService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void should_return_the_balance_at_the_requested_time() throws Exception {
+        LocalDateTime at = LocalDateTime.of(2024, 1, 1, 12, 30);
+        when(accountService.getBalance(1L, at))
+                .thenReturn(BalanceDto.builder().accountId(1L).balance(Money.of("42.10")).at(at).build());
+
+        mockMvc.perform(get("/api/v1/accounts/1/balance").param("at", "2024-01-01T12:30:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountId").value(1))
+                .andExpect(jsonPath("$.balance").value(42.1));
+    }
+
+    @Test
+    void should_throwError_notFound_when_accountNotFound() throws Exception {
+        when(accountService.getBalance(99L, null))
+                .thenThrow(new AccountNotFoundException(String.format(ACCOUNT_NOT_FOUND, 99L)));
+
+        mockMvc.perform(get("/api/v1/accounts/99/balance"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value(String.format(ACCOUNT_NOT_FOUND, 99L)));
+    }
+
+    @Test
+    void should_return_the_account_summary() throws Exception {
+        OperationTotalsDto totals = OperationTotalsDto.builder().operations(3).deposits(Money.of("30.00")).build();
+        when(accountService.getSummary(1L)).thenReturn(AccountSummaryDto.builder()
+                .id(1L).balance(Money.of("130.50")).allTime(totals)
+                .months(List.of(OperationTotalsDto.builder().month(YearMonth.of(2024, 1)).operations(3).build()))
+                .build());
+
+        mockMvc.perform(get("/api/v1/accounts/1/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(130.5))
+                .andExpect(jsonPath("$.allTime.deposits").value(30.0))
+                .andExpect(jsonPath("$.allTime.month").doesNotExist())
+                .andExpect(jsonPath("$.months[0].month").value("2024-01"));
+    }
+}
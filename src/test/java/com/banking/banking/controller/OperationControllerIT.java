@@ -1,6 +1,7 @@
 package com.banking.banking.controller;
 
 
+import com.banking.banking.entity.Money;
 import com.banking.banking.entity.dto.OperationDto;
 import com.banking.banking.entity.enums.OperationType;
 import org.junit.jupiter.api.Test;
@@ -34,7 +35,7 @@ class OperationControllerIT {
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(50.0, response.getBody().getAmount());
+        assertEquals(Money.of("50.00"), response.getBody().getAmount());
         assertEquals(OperationType.DEPOSIT.name(), response.getBody().getType());
     }
 
@@ -66,7 +67,7 @@ class OperationControllerIT {
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(String.format(INSUFFICIENT_BALANCE,100.5), response.getBody().get("message"));
+        assertEquals(String.format(INSUFFICIENT_BALANCE, "100.50"), response.getBody().get("message"));
     }
 
     @Test
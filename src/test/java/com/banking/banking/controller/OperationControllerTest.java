@@ -1,9 +1,21 @@
 package com.banking.banking.controller;
 
 
+import com.banking.banking.converter.OperationBinaryHttpMessageConverter;
+import com.banking.banking.converter.OperationDtoConverter;
+import com.banking.banking.entity.Money;
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.entity.OperationSlice;
 import com.banking.banking.entity.dto.OperationDto;
+import com.banking.banking.entity.dto.OperationPageDto;
+import com.banking.banking.entity.dto.OperationResultDto;
 import com.banking.banking.entity.enums.OperationType;
 import com.banking.banking.exception.AccountNotFoundException;
+import com.banking.banking.exception.OperationRejectedException;
+import com.banking.banking.metrics.OperationMetrics;
+import com.banking.banking.repository.OperationIdGenerator;
+import com.banking.banking.service.AdmissionControl;
+import com.banking.banking.service.IdempotencyCache;
 import com.banking.banking.service.OperationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -15,6 +27,8 @@ import org.mockito.InjectMocks;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -22,18 +36,23 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static com.banking.banking.exception.Messages.*;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(OperationController.class)
+@Import({IdempotencyCache.class, AdmissionControl.class, OperationMetrics.class})
 class OperationControllerTest {
 
     private static final String API_URI = "/api/v1/operations";
@@ -43,6 +62,8 @@ class OperationControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
     @InjectMocks
     private OperationController operationController;
 
@@ -51,13 +72,22 @@ class OperationControllerTest {
         MockitoAnnotations.openMocks(this);
     }
 
+    private static OperationSlice slice(OperationType type, OperationDto... operations) {
+        OperationHistory history = new OperationHistory();
+        for (OperationDto operation : operations) {
+            history.append(operation.getId() == null ? 0 : operation.getId(), OperationType.valueOf(operation.getType()),
+                    operation.getAmount(), OperationHistory.toEpochMillis(operation.getOperationDate()));
+        }
+        return new OperationSlice(1L, history, 0, history.size(), type);
+    }
+
     @Nested
     @DisplayName("process operation")
     class ProcessOperation {
         @Test
         void should_create_operation_and_return_createdStatus() throws Exception {
 
-            OperationDto operationDto = new OperationDto(1L, 50.0, OperationType.DEPOSIT.name(), 50.0, LocalDateTime.now(), 1L);
+            OperationDto operationDto = new OperationDto(1L, Money.of("50.00"), OperationType.DEPOSIT.name(), Money.of("50.00"), LocalDateTime.now(), 1L);
             when(operationService.processOperation(any(OperationDto.class))).thenReturn(operationDto);
 
             mockMvc.perform(post(API_URI)
@@ -75,7 +105,7 @@ class OperationControllerTest {
             objectMapper.registerModule(new JavaTimeModule());
 
             // Arrange
-            OperationDto operationDto = new OperationDto(1L, 50.0, OperationType.WITHDRAW.name(), 500.0, LocalDateTime.now(), 1L);
+            OperationDto operationDto = new OperationDto(1L, Money.of("50.00"), OperationType.WITHDRAW.name(), Money.of("500.00"), LocalDateTime.now(), 1L);
 
             when(operationService.processOperation(any(OperationDto.class)))
                     .thenThrow(new IllegalArgumentException(String.format(INSUFFICIENT_BALANCE, 100.0)));
@@ -95,13 +125,25 @@ class OperationControllerTest {
         }
 
 
+        @Test
+        void should_return_the_rejection_code_and_message() throws Exception {
+            when(operationService.processOperation(any(OperationDto.class))).thenThrow(OperationRejectedException.insufficientBalance(Money.of("12.30")));
+
+            mockMvc.perform(post(API_URI)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"accountId\": 1, \"amount\": 50.0, \"type\": \"WITHDRAW\"}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("INSUFFICIENT_BALANCE"))
+                    .andExpect(jsonPath("$.message").value(String.format(INSUFFICIENT_BALANCE, "12.30")));
+        }
+
         @Test
         void should_throwError_badRequest_when_operation_amount_is_0() throws Exception {
             ObjectMapper objectMapper = new ObjectMapper();
             objectMapper.registerModule(new JavaTimeModule());
 
             // Arrange
-            OperationDto operationDto = new OperationDto(1L, 50.0, OperationType.WITHDRAW.name(), -1.0, LocalDateTime.now(), 1L);
+            OperationDto operationDto = new OperationDto(1L, Money.of("50.00"), OperationType.WITHDRAW.name(), Money.of("-1.00"), LocalDateTime.now(), 1L);
 
             when(operationService.processOperation(any(OperationDto.class)))
                     .thenThrow(new IllegalArgumentException(AMOUNT_MUST_BE_GREATER_THAN_0));
@@ -122,19 +164,267 @@ class OperationControllerTest {
 
     }
 
+    @Nested
+    @DisplayName("idempotency key")
+    class IdempotencyKey {
+        @Test
+        void should_replay_the_original_response_for_a_retried_key() throws Exception {
+            OperationDto operationDto = new OperationDto(1L, Money.of("150.00"), OperationType.DEPOSIT.name(), Money.of("50.00"), LocalDateTime.now(), 1L);
+            when(operationService.processOperation(any(OperationDto.class))).thenReturn(operationDto);
+
+            for (int attempt = 0; attempt < 2; attempt++) {
+                mockMvc.perform(post(API_URI)
+                                .header("Idempotency-Key", "retry-1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"accountId\": 1, \"amount\": 50.0, \"type\": \"DEPOSIT\"}"))
+                        .andExpect(status().isCreated())
+                        .andExpect(jsonPath("$.balance").value(150.0));
+            }
+
+            verify(operationService, times(1)).processOperation(any(OperationDto.class));
+        }
+
+        @Test
+        void should_process_again_after_a_failed_attempt() throws Exception {
+            OperationDto operationDto = new OperationDto(1L, Money.of("150.00"), OperationType.DEPOSIT.name(), Money.of("50.00"), LocalDateTime.now(), 1L);
+            when(operationService.processOperation(any(OperationDto.class)))
+                    .thenThrow(new IllegalArgumentException(AMOUNT_MUST_BE_GREATER_THAN_0))
+                    .thenReturn(operationDto);
+
+            mockMvc.perform(post(API_URI)
+                            .header("Idempotency-Key", "retry-2")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"accountId\": 1, \"amount\": 50.0, \"type\": \"DEPOSIT\"}"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(post(API_URI)
+                            .header("Idempotency-Key", "retry-2")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"accountId\": 1, \"amount\": 50.0, \"type\": \"DEPOSIT\"}"))
+                    .andExpect(status().isCreated());
+
+            verify(operationService, times(2)).processOperation(any(OperationDto.class));
+        }
+
+        @Test
+        void should_refuse_a_retried_key_with_a_different_body() throws Exception {
+            OperationDto operationDto = new OperationDto(1L, Money.of("150.00"), OperationType.DEPOSIT.name(), Money.of("50.00"), LocalDateTime.now(), 1L);
+            when(operationService.processOperation(any(OperationDto.class))).thenReturn(operationDto);
+
+            mockMvc.perform(post(API_URI)
+                            .header("Idempotency-Key", "retry-3")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"accountId\": 1, \"amount\": 50.0, \"type\": \"DEPOSIT\"}"))
+                    .andExpect(status().isCreated());
+            mockMvc.perform(post(API_URI)
+                            .header("Idempotency-Key", "retry-3")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"accountId\": 1, \"amount\": 500.0, \"type\": \"DEPOSIT\"}"))
+                    .andExpect(status().isUnprocessableEntity())
+                    .andExpect(jsonPath("$.code").value("IDEMPOTENCY_KEY_REUSED"));
+
+            verify(operationService, times(1)).processOperation(any(OperationDto.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("async endpoints")
+    class AsyncOperations {
+        @Test
+        void should_create_operation_asynchronously() throws Exception {
+            OperationDto operationDto = new OperationDto(null, Money.of("150.50"), OperationType.DEPOSIT.name(), Money.of("50.00"), null, 1L);
+            when(operationService.processOperationAsync(any(OperationDto.class))).thenReturn(CompletableFuture.completedFuture(operationDto));
+
+            MvcResult mvcResult = mockMvc.perform(post(API_URI + "/async")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"accountId\": 1, \"amount\": 50.0, \"type\": \"DEPOSIT\"}"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(mvcResult))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.balance").value(150.5));
+        }
+
+        @Test
+        void should_map_async_failures_through_the_exception_handler() throws Exception {
+            when(operationService.getOperationsByAccountIdAsync(99L))
+                    .thenReturn(CompletableFuture.failedFuture(new AccountNotFoundException(String.format(ACCOUNT_NOT_FOUND, 99L))));
+
+            MvcResult mvcResult = mockMvc.perform(get(API_URI + "/async").param("accountId", "99"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(mvcResult))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.message").value(String.format(ACCOUNT_NOT_FOUND, 99L)));
+        }
+    }
+
+    @Nested
+    @DisplayName("process batch of operations")
+    class ProcessOperations {
+        @Test
+        void should_return_one_result_per_item() throws Exception {
+            List<OperationResultDto> results = List.of(
+                    new OperationResultDto(0, true, new OperationDto(null, Money.of("150.00"), OperationType.DEPOSIT.name(), Money.of("50.00"), null, 1L), null, null),
+                    new OperationResultDto(1, false, new OperationDto(null, Money.of("0.00"), OperationType.DEPOSIT.name(), Money.of("10.00"), null, 99L),
+                            String.format(ACCOUNT_NOT_FOUND, 99L), null)
+            );
+            when(operationService.processOperations(anyList())).thenReturn(results);
+
+            mockMvc.perform(post(API_URI + "/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[{\"accountId\": 1, \"amount\": 50.0, \"type\": \"DEPOSIT\"},"
+                                    + "{\"accountId\": 99, \"amount\": 10.0, \"type\": \"DEPOSIT\"}]"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].success").value(true))
+                    .andExpect(jsonPath("$[0].operation.balance").value(150.0))
+                    .andExpect(jsonPath("$[1].success").value(false))
+                    .andExpect(jsonPath("$[1].message").value(String.format(ACCOUNT_NOT_FOUND, 99L)));
+
+            verify(operationService, times(1)).processOperations(anyList());
+        }
+    }
+
+    @Nested
+    @DisplayName("binary format")
+    class BinaryFormat {
+        private final MediaType binary = OperationBinaryHttpMessageConverter.MEDIA_TYPE;
+
+        @Test
+        void should_read_and_write_a_binary_operation() throws Exception {
+            LocalDateTime date = LocalDateTime.of(2024, 1, 1, 12, 0);
+            OperationDto created = new OperationDto(7L, Money.of("150.50"), OperationType.DEPOSIT.name(), Money.of("50.00"), date, 1L);
+            when(operationService.processOperation(any(OperationDto.class))).thenReturn(created);
+            OperationDto request = OperationDto.builder().accountId(1L).type(OperationType.DEPOSIT.name()).amount(Money.of("50.00")).build();
+
+            MvcResult result = mockMvc.perform(post(API_URI)
+                            .contentType(binary)
+                            .accept(binary)
+                            .content(OperationBinaryHttpMessageConverter.encode(request)))
+                    .andExpect(status().isCreated())
+                    .andExpect(content().contentType(binary))
+                    .andReturn();
+
+            verify(operationService).processOperation(argThat(operation -> operation.getAccountId() == 1L
+                    && operation.getId() == null
+                    && operation.getType().equals("DEPOSIT")
+                    && operation.getAmount() == Money.of("50.00")));
+            OperationDto response = OperationBinaryHttpMessageConverter.decode(result.getResponse().getContentAsByteArray());
+            assertEquals(7L, response.getId());
+            assertEquals(Money.of("150.50"), response.getBalance());
+            assertEquals(date, response.getOperationDate());
+        }
+
+        @Test
+        void should_write_the_history_as_a_binary_list() throws Exception {
+            OperationSlice operations = slice(null,
+                    new OperationDto(1L, 0, OperationType.DEPOSIT.name(), Money.of("10.00"), LocalDateTime.of(2024, 1, 1, 0, 0), 1L),
+                    new OperationDto(2L, 0, OperationType.WITHDRAW.name(), Money.of("2.50"), LocalDateTime.of(2024, 1, 2, 0, 0), 1L));
+            when(operationService.getOperationSlice(1L, null, null, null)).thenReturn(operations);
+
+            MvcResult result = mockMvc.perform(get(API_URI).param("accountId", "1").accept(binary))
+                    .andExpect(status().isOk())
+                    .andReturn();
+
+            byte[] body = result.getResponse().getContentAsByteArray();
+            assertEquals(4 + 2 * OperationBinaryHttpMessageConverter.RECORD_SIZE, body.length);
+            List<OperationDto> decoded = OperationBinaryHttpMessageConverter.decodeList(body);
+            assertEquals("WITHDRAW", decoded.get(1).getType());
+            assertEquals(Money.of("2.50"), decoded.get(1).getAmount());
+            assertEquals(LocalDateTime.of(2024, 1, 2, 0, 0), decoded.get(1).getOperationDate());
+            assertEquals(1L, decoded.get(1).getAccountId());
+        }
+
+        @Test
+        void should_write_batch_results_in_binary() throws Exception {
+            OperationDto applied = new OperationDto(7L, Money.of("150.50"), OperationType.DEPOSIT.name(), Money.of("50.00"), LocalDateTime.of(2024, 1, 1, 12, 0), 1L);
+            OperationDto rejected = OperationDto.builder().accountId(99L).type(OperationType.DEPOSIT.name()).amount(Money.of("10.00")).build();
+            when(operationService.processOperations(anyList())).thenReturn(List.of(
+                    OperationResultDto.builder().index(0).success(true).operation(applied).build(),
+                    OperationResultDto.builder().index(1).success(false).operation(rejected).message(String.format(ACCOUNT_NOT_FOUND, 99L)).build()));
+
+            MvcResult result = mockMvc.perform(post(API_URI + "/batch")
+                            .contentType(binary)
+                            .accept(binary)
+                            .content(OperationBinaryHttpMessageConverter.encode(List.of(applied, rejected))))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(binary))
+                    .andReturn();
+
+            List<OperationResultDto> results = OperationBinaryHttpMessageConverter.decodeResults(result.getResponse().getContentAsByteArray());
+            assertEquals(2, results.size());
+            assertTrue(results.get(0).isSuccess());
+            assertEquals(Money.of("150.50"), results.get(0).getOperation().getBalance());
+            assertNull(results.get(0).getMessage());
+            assertFalse(results.get(1).isSuccess());
+            assertEquals(1, results.get(1).getIndex());
+            assertEquals(String.format(ACCOUNT_NOT_FOUND, 99L), results.get(1).getMessage());
+        }
+
+        @Test
+        void should_answer_errors_in_json_to_binary_clients() throws Exception {
+            when(operationService.getLastOperationId(99L)).thenThrow(new AccountNotFoundException(99L));
+
+            mockMvc.perform(get(API_URI).param("accountId", "99").accept(binary))
+                    .andExpect(status().isNotFound())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.code").value("ACCOUNT_NOT_FOUND"));
+        }
+
+        @Test
+        void should_reject_a_truncated_binary_body() throws Exception {
+            mockMvc.perform(post(API_URI).contentType(binary).content(new byte[10]))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(operationService);
+        }
+    }
+
     @Nested
     @DisplayName("get all operation by account id")
     class getOperations {
+        @Test
+        void should_tag_the_history_with_its_last_operation_id() throws Exception {
+            when(operationService.getLastOperationId(1L)).thenReturn(12L);
+            when(operationService.getOperationSlice(1L, null, null, null)).thenReturn(slice(null));
+
+            mockMvc.perform(get(API_URI).param("accountId", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "W/\"12\""));
+        }
+
+        @Test
+        void should_answer_not_modified_without_reading_the_history() throws Exception {
+            when(operationService.getLastOperationId(1L)).thenReturn(12L);
+
+            mockMvc.perform(get(API_URI).param("accountId", "1").header(HttpHeaders.IF_NONE_MATCH, "W/\"12\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+
+            verify(operationService, never()).getOperationSlice(any(), any(), any(), any());
+        }
+
+        @Test
+        void should_return_the_history_again_once_an_operation_was_applied() throws Exception {
+            when(operationService.getLastOperationId(1L)).thenReturn(13L);
+            when(operationService.getOperationSlice(1L, null, null, null)).thenReturn(slice(null));
+
+            mockMvc.perform(get(API_URI).param("accountId", "1").header(HttpHeaders.IF_NONE_MATCH, "W/\"12\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "W/\"13\""));
+        }
+
         @Test
         void should_return_operations_byAccountId_success() throws Exception {
             // Arrange
             Long accountId = 1L;
-            List<OperationDto> operations = Arrays.asList(
-                    new OperationDto(1L, 50, OperationType.WITHDRAW.name(), 50, LocalDateTime.now(), 1L),
-                    new OperationDto(2L, 100, OperationType.DEPOSIT.name(), 100, LocalDateTime.now(), 1L)
+            OperationSlice operations = slice(null,
+                    new OperationDto(1L, Money.of("50.00"), OperationType.WITHDRAW.name(), Money.of("50.00"), LocalDateTime.now(), 1L),
+                    new OperationDto(2L, Money.of("100.00"), OperationType.DEPOSIT.name(), Money.of("100.00"), LocalDateTime.now(), 1L)
             );
 
-            when(operationService.getOperationsByAccountId(accountId)).thenReturn(operations);
+            when(operationService.getOperationSlice(accountId, null, null, null)).thenReturn(operations);
 
 
             MvcResult mvcResult = mockMvc.perform(get(API_URI)
@@ -145,14 +435,125 @@ class OperationControllerTest {
                     .andReturn();
 
             assertThat(mvcResult.getResponse().getContentAsString()).isNotNull();
-            verify(operationService).getOperationsByAccountId(accountId);
+            verify(operationService).getOperationSlice(accountId, null, null, null);
+        }
+
+        @Test
+        void should_return_a_page_with_next_cursor_when_limit_is_given() throws Exception {
+            OperationPageDto page = new OperationPageDto(List.of(
+                    new OperationDto(3L, Money.of("100.00"), OperationType.DEPOSIT.name(), Money.of("100.00"), null, 1L)), 3L);
+            when(operationService.getOperationsPage(1L, 2L, 1)).thenReturn(page);
+
+            mockMvc.perform(get(API_URI)
+                            .param("accountId", "1")
+                            .param("after", "2")
+                            .param("limit", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.operations.length()").value(1))
+                    .andExpect(jsonPath("$.operations[0].id").value("3"))
+                    .andExpect(jsonPath("$.nextCursor").value("3"));
+        }
+
+        @Test
+        void should_send_ids_as_strings_to_keep_them_exact() throws Exception {
+            long id = OperationIdGenerator.firstId(1_704_067_200_123L) | 4095;
+            OperationPageDto page = new OperationPageDto(List.of(
+                    new OperationDto(id, Money.of("100.00"), OperationType.DEPOSIT.name(), Money.of("100.00"), null, 1L)), id);
+            when(operationService.getOperationsPage(1L, id - 1, 1)).thenReturn(page);
+
+            mockMvc.perform(get(API_URI)
+                            .param("accountId", "1")
+                            .param("after", Long.toString(id - 1))
+                            .param("limit", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.operations[0].id").value(Long.toString(id)))
+                    .andExpect(jsonPath("$.nextCursor").value(Long.toString(id)));
+        }
+
+        @Test
+        void should_stream_operations_as_ndjson_chunk_by_chunk() throws Exception {
+            OperationDto withdraw = new OperationDto(1L, Money.of("50.00"), OperationType.WITHDRAW.name(), Money.of("50.00"), null, 1L);
+            OperationDto deposit = new OperationDto(2L, Money.of("100.00"), OperationType.DEPOSIT.name(), Money.of("100.00"), null, 1L);
+            when(operationService.getOperationsPage(eq(1L), eq(0L), anyInt())).thenReturn(new OperationPageDto(List.of(withdraw), 1L));
+            when(operationService.getOperationsPage(eq(1L), eq(1L), anyInt())).thenReturn(new OperationPageDto(List.of(deposit), null));
+
+            MvcResult mvcResult = mockMvc.perform(get(API_URI)
+                            .param("accountId", "1")
+                            .accept(MediaType.APPLICATION_NDJSON))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            String body = mockMvc.perform(asyncDispatch(mvcResult))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andReturn().getResponse().getContentAsString();
+
+            String[] lines = body.split("\n");
+            assertEquals(2, lines.length);
+            assertTrue(lines[0].startsWith("{") && lines[0].contains("\"type\":\"WITHDRAW\""));
+            assertTrue(lines[1].startsWith("{") && lines[1].contains("\"type\":\"DEPOSIT\""));
+            verify(operationService, never()).getOperationSlice(any(), any(), any(), any());
+        }
+
+        @Test
+        void should_pass_date_range_and_type_filters_to_the_service() throws Exception {
+            LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+            LocalDateTime to = LocalDateTime.of(2024, 1, 31, 23, 59, 59);
+            when(operationService.getOperationSlice(1L, from, to, OperationType.DEPOSIT)).thenReturn(slice(OperationType.DEPOSIT,
+                    new OperationDto(null, 0, OperationType.WITHDRAW.name(), Money.of("1.00"), from, 1L),
+                    new OperationDto(null, 0, OperationType.DEPOSIT.name(), Money.of("10.00"), from.plusDays(1), 1L)));
+
+            mockMvc.perform(get(API_URI)
+                            .param("accountId", "1")
+                            .param("from", "2024-01-01T00:00:00")
+                            .param("to", "2024-01-31T23:59:59")
+                            .param("type", "DEPOSIT"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(1))
+                    .andExpect(jsonPath("$[0].type").value("DEPOSIT"));
+        }
+
+        @Test
+        void should_return_json_list_when_client_accepts_anything() throws Exception {
+            when(operationService.getOperationSlice(1L, null, null, null)).thenReturn(slice(null));
+
+            mockMvc.perform(get(API_URI)
+                            .param("accountId", "1")
+                            .accept(MediaType.ALL))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+
+            verify(operationService).getOperationSlice(1L, null, null, null);
+        }
+
+        @Test
+        void should_write_the_same_json_as_the_operation_dtos() throws Exception {
+            OperationHistory history = new OperationHistory();
+            history.append(0, OperationType.DEPOSIT, Money.of("10.00"), OperationHistory.toEpochMillis(LocalDateTime.of(1969, 12, 31, 23, 59, 59)));
+            history.append(7, OperationType.WITHDRAW, 5, OperationHistory.toEpochMillis(LocalDateTime.of(2024, 1, 1, 0, 0)));
+            history.append(8, OperationType.TRANSFER, -Money.of("1234567.89"), 1704067200120L);
+            history.append(9, OperationType.DEPOSIT, Long.MAX_VALUE, 1704067200005L);
+            history.append(Long.MAX_VALUE, OperationType.TRANSFER, Long.MIN_VALUE, 1735689599999L);
+            OperationSlice operations = new OperationSlice(1L, history, 0, history.size(), null);
+            List<OperationDto> expected = new ArrayList<>();
+            for (int i = 0; i < history.size(); i++) {
+                expected.add(OperationDtoConverter.convert(history.get(i, 1L)));
+            }
+            when(operationService.getOperationSlice(1L, null, null, null)).thenReturn(operations);
+
+            String body = mockMvc.perform(get(API_URI).param("accountId", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andReturn().getResponse().getContentAsString();
+
+            assertEquals(objectMapper.writeValueAsString(expected), body);
         }
 
         @Test
         void should_throwError_accountNotFound() throws Exception {
             Long accountId = 99L;
 
-            when(operationService.getOperationsByAccountId(accountId))
+            when(operationService.getOperationSlice(accountId, null, null, null))
                     .thenThrow(new AccountNotFoundException(String.format(ACCOUNT_NOT_FOUND, accountId)));
 
 
@@ -166,7 +567,7 @@ class OperationControllerTest {
                                     result.getResolvedException().getMessage()));
 
 
-            verify(operationService, times(1)).getOperationsByAccountId(accountId);
+            verify(operationService, times(1)).getOperationSlice(accountId, null, null, null);
         }
 
     }
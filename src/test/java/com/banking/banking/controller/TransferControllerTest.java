@@ -0,0 +1,113 @@
+package com.banking.banking.controller;
+
+import com.banking.banking.entity.Money;
+import com.banking.banking.entity.dto.OperationDto;
+import com.banking.banking.entity.dto.TransferDto;
+import com.banking.banking.exception.OverloadedException;
+import com.banking.banking.metrics.OperationMetrics;
+import com.banking.banking.service.AdmissionControl;
+import com.banking.banking.service.IdempotencyCache;
+import com.banking.banking.service.OperationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+
+import static com.banking.banking.exception.Messages.ACCOUNT_OVERLOADED;
+import static com.banking.banking.exception.Messages.SAME_ACCOUNT_TRANSFER;
+import static com.banking.banking.exception.Messages.SERVER_OVERLOADED;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest({TransferController.class, OperationController.class})
+@Import({IdempotencyCache.class, AdmissionControl.class, OperationMetrics.class})
+class TransferControllerTest {
+
+    private static final String API_URI = "/api/v1/transfers";
+
+    @MockitoBean
+    private OperationService operationService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void should_create_transfer_and_return_createdStatus() throws Exception {
+        TransferDto transfer = TransferDto.builder()
+                .fromAccountId(1L).toAccountId(2L)
+                .amount(Money.of("25.00")).fromBalance(Money.of("75.50")).toBalance(Money.of("25.00"))
+                .build();
+        when(operationService.transfer(any(TransferDto.class))).thenReturn(transfer);
+
+        mockMvc.perform(post(API_URI)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromAccountId\": 1, \"toAccountId\": 2, \"amount\": 25.0}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.fromBalance").value(75.5))
+                .andExpect(jsonPath("$.toBalance").value(25.0));
+    }
+
+    @Test
+    void should_not_share_idempotency_keys_with_operations() throws Exception {
+        when(operationService.processOperation(any(OperationDto.class))).thenReturn(OperationDto.builder().id(5L).build());
+        when(operationService.transfer(any(TransferDto.class))).thenReturn(TransferDto.builder().id(6L).build());
+
+        mockMvc.perform(post("/api/v1/operations")
+                        .header(OperationController.IDEMPOTENCY_KEY, "shared")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"accountId\": 1, \"amount\": 5.0, \"type\": \"DEPOSIT\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post(API_URI)
+                        .header(OperationController.IDEMPOTENCY_KEY, "shared")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromAccountId\": 1, \"toAccountId\": 2, \"amount\": 25.0}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value("6"));
+    }
+
+    @Test
+    void should_throwError_badRequest_when_transfer_is_rejected() throws Exception {
+        when(operationService.transfer(any(TransferDto.class))).thenThrow(new IllegalArgumentException(SAME_ACCOUNT_TRANSFER));
+
+        mockMvc.perform(post(API_URI)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromAccountId\": 1, \"toAccountId\": 1, \"amount\": 25.0}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(SAME_ACCOUNT_TRANSFER));
+    }
+
+    @Test
+    void should_answer_too_many_requests_with_retry_after_when_the_account_is_overloaded() throws Exception {
+        when(operationService.transfer(any(TransferDto.class)))
+                .thenThrow(new OverloadedException(1L, Duration.ofSeconds(3)));
+
+        mockMvc.perform(post(API_URI)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromAccountId\": 1, \"toAccountId\": 2, \"amount\": 25.0}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"))
+                .andExpect(jsonPath("$.message").value(String.format(ACCOUNT_OVERLOADED, 1L)));
+    }
+
+    @Test
+    void should_answer_service_unavailable_when_the_server_is_overloaded() throws Exception {
+        when(operationService.transfer(any(TransferDto.class)))
+                .thenThrow(new OverloadedException(SERVER_OVERLOADED, Duration.ofMillis(200)));
+
+        mockMvc.perform(post(API_URI)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromAccountId\": 1, \"toAccountId\": 2, \"amount\": 25.0}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+}
@@ -0,0 +1,120 @@
+package com.banking.banking.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedAccountEngineTest {
+
+    private final ShardedAccountEngine engine = new ShardedAccountEngine(4, 16);
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    void should_always_run_an_account_on_the_same_shard_thread() {
+        String first = engine.execute(42L, () -> Thread.currentThread().getName());
+        String second = engine.execute(42L, () -> Thread.currentThread().getName());
+
+        assertTrue(first.startsWith("account-shard-"));
+        assertEquals(first, second);
+    }
+
+    @Test
+    void should_spread_accounts_across_all_shards() {
+        Set<String> threads = new HashSet<>();
+        for (long id = 0; id < 1_000; id++) {
+            threads.add(engine.execute(id, () -> Thread.currentThread().getName()));
+        }
+
+        assertEquals(4, threads.size());
+    }
+
+    @Test
+    void should_rethrow_the_action_exception_to_the_caller() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> engine.execute(1L, () -> {
+                    throw new IllegalArgumentException("rejected");
+                }));
+
+        assertEquals("rejected", exception.getMessage());
+    }
+
+    @Test
+    void should_fail_queued_tasks_and_refuse_new_ones_once_closed() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch running = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            Future<Boolean> blocking = callers.submit(() -> engine.execute(1L, () -> {
+                running.countDown();
+                try {
+                    return release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            Future<Integer> queued = callers.submit(() -> engine.execute(1L, () -> 42));
+            Thread.sleep(50);
+
+            engine.close();
+
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+            assertFalse(blocking.get(5, TimeUnit.SECONDS));
+            assertThrows(RejectedExecutionException.class, () -> engine.execute(1L, () -> 42));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void should_run_nested_calls_for_the_same_shard_inline() {
+        int result = engine.execute(7L, () -> engine.execute(7L, () -> 42));
+
+        assertEquals(42, result);
+    }
+
+    @Test
+    void should_not_deadlock_on_opposing_calls_across_shards() throws Exception {
+        long first = 0;
+        long second = 1;
+        while (engine.shardOf(second) == engine.shardOf(first)) {
+            second++;
+        }
+        long a = first;
+        long b = second;
+        int[] counter = new int[1];
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[8];
+        for (int t = 0; t < futures.length; t++) {
+            boolean forward = t % 2 == 0;
+            futures[t] = CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    engine.execute(forward ? a : b, forward ? b : a, () -> counter[0]++);
+                }
+            }, executor);
+        }
+        CompletableFuture.allOf(futures).get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertEquals(8_000, engine.execute(a, b, () -> counter[0]));
+    }
+}
@@ -0,0 +1,35 @@
+package com.banking.banking.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void should_parse_decimals_exactly_into_minor_units() {
+        assertEquals(10_050, Money.of("100.5"));
+        assertEquals(10, Money.of("0.10"));
+        assertEquals(-1, Money.of("-0.01"));
+        assertEquals(30, Money.of("0.1") + Money.of("0.2"));
+        assertEquals(120_000, Money.of(new BigDecimal("1.2E3")));
+        assertEquals(500, Money.ofUnits(5));
+    }
+
+    @Test
+    void should_reject_amounts_that_do_not_fit_the_currency_scale() {
+        assertThrows(IllegalArgumentException.class, () -> Money.of("1.005"));
+        assertThrows(IllegalArgumentException.class, () -> Money.of("1e30"));
+        assertThrows(IllegalArgumentException.class, () -> Money.of("ten"));
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1));
+    }
+
+    @Test
+    void should_format_with_currency_scale() {
+        assertEquals("100.50", Money.format(10_050));
+        assertEquals("0.01", Money.format(1));
+        assertEquals("-2.00", Money.format(-200));
+    }
+}
@@ -0,0 +1,147 @@
+package com.banking.banking.entity;
+
+import com.banking.banking.entity.enums.OperationType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OperationHistoryTest {
+
+    @Test
+    void should_keep_every_column_across_chunk_boundaries() {
+        OperationHistory history = new OperationHistory();
+        int operations = 3 * OperationHistory.CHUNK_SIZE + 17;
+
+        for (int i = 0; i < operations; i++) {
+            history.append(i + 1, i % 2 == 0 ? OperationType.DEPOSIT : OperationType.WITHDRAW, i * 10L, 1_000L + i);
+        }
+
+        assertEquals(operations, history.size());
+        for (int i = 0; i < operations; i++) {
+            assertEquals(i + 1, history.id(i));
+            assertEquals(i % 2 == 0 ? OperationType.DEPOSIT : OperationType.WITHDRAW, history.type(i));
+            assertEquals(i * 10L, history.amount(i));
+            assertEquals(1_000L + i, history.timestamp(i));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> history.id(operations));
+    }
+
+    @Test
+    void should_seal_chunks_outside_the_hot_window_and_read_them_transparently() {
+        OperationHistory history = new OperationHistory(OperationHistory.CHUNK_SIZE + 1);
+        OperationHistory reference = new OperationHistory();
+        OperationType[] types = OperationType.values();
+        int operations = 5 * OperationHistory.CHUNK_SIZE + 9;
+
+        for (int i = 0; i < operations; i++) {
+            history.append(i + 1, types[i % types.length], i * 3L, 1_000L + i);
+            reference.append(i + 1, types[i % types.length], i * 3L, 1_000L + i);
+        }
+
+        // two full chunks stay hot besides the one being written
+        assertTrue(history.isSealed(0));
+        assertTrue(history.isSealed(2));
+        assertFalse(history.isSealed(3));
+        assertFalse(history.isSealed(5));
+        for (int i = 0; i < operations; i++) {
+            assertEquals(reference.id(i), history.id(i));
+            assertEquals(reference.type(i), history.type(i));
+            assertEquals(reference.amount(i), history.amount(i));
+            assertEquals(reference.timestamp(i), history.timestamp(i));
+        }
+        for (int count = 0; count <= operations; count += 61) {
+            assertEquals(reference.netBefore(count), history.netBefore(count));
+        }
+        assertEquals(2_001, history.countUntil(3_000));
+    }
+
+    @Test
+    void should_compute_the_net_amount_of_any_prefix_from_checkpoints() {
+        OperationHistory history = new OperationHistory();
+        OperationType[] types = OperationType.values();
+        int operations = OperationHistory.CHUNK_SIZE + 3 * OperationHistory.CHECKPOINT_INTERVAL + 5;
+        long[] expected = new long[operations + 1];
+
+        for (int i = 0; i < operations; i++) {
+            OperationType type = types[i % types.length];
+            long amount = type == OperationType.TRANSFER && i % 2 == 0 ? -i : i;
+            history.append(0, type, amount, i);
+            expected[i + 1] = expected[i] + OperationHistory.signedAmount(type, amount);
+            // the newest prefix is always readable, including right on a checkpoint boundary
+            assertEquals(expected[i + 1], history.netBefore(i + 1));
+        }
+
+        for (int count = 0; count <= operations; count++) {
+            assertEquals(expected[count], history.netBefore(count));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> history.netBefore(operations + 1));
+    }
+
+    @Test
+    void should_count_operations_up_to_a_timestamp_with_never_decreasing_timestamps() {
+        OperationHistory history = new OperationHistory();
+        history.append(0, OperationType.DEPOSIT, 1, 100);
+        history.append(0, OperationType.DEPOSIT, 1, 200);
+        history.append(0, OperationType.DEPOSIT, 1, 200);
+        // a clock going backwards is recorded at the previous timestamp
+        history.append(0, OperationType.DEPOSIT, 1, 150);
+        history.append(0, OperationType.DEPOSIT, 1, 300);
+
+        assertEquals(200, history.timestamp(3));
+        assertEquals(0, history.countUntil(99));
+        assertEquals(1, history.countUntil(100));
+        assertEquals(1, history.countUntil(199));
+        assertEquals(4, history.countUntil(200));
+        assertEquals(5, history.countUntil(Long.MAX_VALUE));
+    }
+
+    @Test
+    void should_materialize_operation_at_the_edge() {
+        OperationHistory history = new OperationHistory();
+        LocalDateTime date = LocalDateTime.of(2024, 3, 1, 9, 30, 15);
+        history.append(0, OperationType.WITHDRAW, 1_234, OperationHistory.toEpochMillis(date));
+
+        Operation operation = history.get(0, 7L);
+
+        assertNull(operation.getId());
+        assertEquals(7L, operation.getAccountId());
+        assertEquals(OperationType.WITHDRAW, operation.getType());
+        assertEquals(1_234, operation.getAmount());
+        assertEquals(date, operation.getOperationDate());
+    }
+
+    @Test
+    void should_let_readers_see_a_consistent_prefix_while_appending() throws Exception {
+        OperationHistory history = new OperationHistory();
+        int operations = 200_000;
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread reader = new Thread(() -> {
+            try {
+                int seen = 0;
+                while (seen < operations) {
+                    int size = history.size();
+                    for (int i = seen; i < size; i++) {
+                        if (history.amount(i) != i || history.timestamp(i) != i) {
+                            throw new AssertionError("Unexpected value at " + i);
+                        }
+                    }
+                    seen = size;
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        reader.start();
+        for (int i = 0; i < operations; i++) {
+            history.append(i, OperationType.DEPOSIT, i, i);
+        }
+        reader.join(30_000);
+
+        assertFalse(reader.isAlive());
+        assertNull(failure.get());
+    }
+}
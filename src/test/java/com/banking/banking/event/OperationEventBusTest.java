@@ -0,0 +1,223 @@
+package com.banking.banking.event;
+
+import com.banking.banking.config.BankingProperties;
+import com.banking.banking.entity.enums.OperationType;
+import com.banking.banking.exception.OverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OperationEventBusTest {
+
+    private final OperationEventBus bus = bus(8);
+
+    @AfterEach
+    void tearDown() {
+        bus.close();
+    }
+
+    private static OperationEventBus bus(int capacity) {
+        BankingProperties properties = new BankingProperties();
+        properties.getEvents().setCapacity(capacity);
+        properties.getEvents().setPollInterval(Duration.ofMillis(1));
+        properties.getEvents().setMaxSubscribers(2);
+        properties.getEvents().setDispatcherThreads(1);
+        properties.getEvents().setWriteTimeout(Duration.ofMillis(100));
+        return new OperationEventBus(properties, 0);
+    }
+
+    private void publish(long accountId, long amount) {
+        bus.publish(accountId, 0, OperationType.DEPOSIT, amount, amount, 1_000L);
+    }
+
+    @Test
+    void should_deliver_new_events_in_order_filtered_by_account() throws Exception {
+        publish(1, 1);
+        OperationEventBus.Subscription all = bus.open(null, null);
+        OperationEventBus.Subscription account = bus.open(2L, null);
+        publish(1, 2);
+        publish(2, 3);
+        publish(1, 4);
+
+        RecordingSink everything = new RecordingSink();
+        RecordingSink filtered = new RecordingSink();
+        assertTrue(all.drain(everything));
+        assertTrue(account.drain(filtered));
+
+        assertEquals(List.of("2:2", "3:3", "4:4"), everything.received);
+        assertEquals(List.of("3:3"), filtered.received);
+        assertFalse(all.drain(everything));
+    }
+
+    @Test
+    void should_resume_after_the_last_seen_sequence() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            publish(1, i * 10L);
+        }
+
+        RecordingSink sink = new RecordingSink();
+        bus.open(1L, 3L).drain(sink);
+
+        assertEquals(List.of("4:40", "5:50"), sink.received);
+    }
+
+    @Test
+    void should_report_a_gap_from_a_sequence_of_an_earlier_run() throws Exception {
+        BankingProperties properties = new BankingProperties();
+        properties.getEvents().setCapacity(8);
+        OperationEventBus restarted = new OperationEventBus(properties, 100);
+        restarted.publish(1, 0, OperationType.DEPOSIT, 1, 1, 1_000L);
+        restarted.publish(1, 0, OperationType.DEPOSIT, 2, 2, 1_000L);
+
+        RecordingSink sink = new RecordingSink();
+        restarted.open(null, 42L).drain(sink);
+        restarted.close();
+
+        assertEquals(List.of("gap:43-100", "101:1", "102:2"), sink.received);
+    }
+
+    @Test
+    void should_reset_a_subscriber_resuming_beyond_the_last_event() throws Exception {
+        publish(1, 1);
+        OperationEventBus.Subscription subscription = bus.open(null, 42L);
+        publish(1, 2);
+
+        RecordingSink sink = new RecordingSink();
+        subscription.drain(sink);
+
+        assertEquals(List.of("reset:1", "2:2"), sink.received);
+    }
+
+    @Test
+    void should_report_a_gap_when_a_subscriber_is_overrun() throws Exception {
+        OperationEventBus.Subscription slow = bus.open(null, 0L);
+        for (int i = 1; i <= 20; i++) {
+            publish(1, i);
+        }
+
+        RecordingSink sink = new RecordingSink();
+        slow.drain(sink);
+
+        assertEquals("gap:1-12", sink.received.get(0));
+        assertEquals(List.of("13:13", "14:14", "15:15", "16:16", "17:17", "18:18", "19:19", "20:20"),
+                sink.received.subList(1, sink.received.size()));
+    }
+
+    @Test
+    void should_skip_a_sequence_claimed_but_never_stored_once_later_events_arrive() throws Exception {
+        OperationEventBus.Subscription subscription = bus.open(null, null);
+        publish(1, 1);
+        bus.claim();
+        publish(1, 3);
+
+        RecordingSink sink = new RecordingSink();
+        subscription.drain(sink);
+        assertEquals(List.of("1:1"), sink.received);
+
+        Thread.sleep(150);
+        subscription.drain(sink);
+        assertEquals(List.of("1:1", "gap:2-2", "3:3"), sink.received);
+    }
+
+    @Test
+    void should_refuse_subscribers_beyond_the_limit_until_one_leaves() {
+        OperationEventBus.Subscription first = bus.subscribe(null, null, new RecordingSink());
+        bus.subscribe(1L, null, new RecordingSink());
+
+        assertThrows(OverloadedException.class, () -> bus.subscribe(2L, null, new RecordingSink()));
+
+        first.close();
+        first.close();
+        bus.subscribe(2L, null, new RecordingSink());
+        assertThrows(OverloadedException.class, () -> bus.subscribe(3L, null, new RecordingSink()));
+    }
+
+    @Test
+    void should_dispatch_to_subscribers_without_blocking_publishers() throws Exception {
+        CountDownLatch delivered = new CountDownLatch(3);
+        RecordingSink sink = new RecordingSink() {
+            @Override
+            public void event(OperationEvent event) {
+                super.event(event);
+                delivered.countDown();
+            }
+        };
+        OperationEventBus.Subscription subscription = bus.subscribe(null, null, sink);
+
+        publish(1, 1);
+        publish(1, 2);
+        publish(1, 3);
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        subscription.close();
+    }
+
+    @Test
+    void should_close_a_subscriber_whose_client_stops_reading_without_holding_up_the_others() throws Exception {
+        CountDownLatch stuck = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        RecordingSink neverReturns = new RecordingSink() {
+            @Override
+            public void event(OperationEvent event) {
+                stuck.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            }
+        };
+        CountDownLatch delivered = new CountDownLatch(3);
+        RecordingSink healthy = new RecordingSink() {
+            @Override
+            public void event(OperationEvent event) {
+                super.event(event);
+                delivered.countDown();
+            }
+        };
+        bus.subscribe(null, null, neverReturns);
+        OperationEventBus.Subscription other = bus.subscribe(null, null, healthy);
+
+        publish(1, 1);
+        assertTrue(stuck.await(5, TimeUnit.SECONDS));
+        publish(1, 2);
+        publish(1, 3);
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        other.close();
+        // the stalled subscriber gave its slot back
+        bus.subscribe(2L, null, new RecordingSink());
+        bus.subscribe(3L, null, new RecordingSink());
+    }
+
+    private static class RecordingSink implements OperationEventBus.Sink {
+        final List<String> received = new ArrayList<>();
+
+        @Override
+        public synchronized void event(OperationEvent event) {
+            received.add(event.getSequence() + ":" + event.getAmount());
+        }
+
+        @Override
+        public synchronized void gap(long from, long to) {
+            received.add("gap:" + from + "-" + to);
+        }
+
+        @Override
+        public synchronized void reset(long last) {
+            received.add("reset:" + last);
+        }
+
+        @Override
+        public void keepAlive() {
+        }
+    }
+}
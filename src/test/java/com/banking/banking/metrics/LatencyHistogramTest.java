@@ -0,0 +1,53 @@
+package com.banking.banking.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void should_count_small_values_exactly() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10; value++) {
+            histogram.record(value);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(10, snapshot.count());
+        assertEquals(5, snapshot.percentile(50));
+        assertEquals(10, snapshot.percentile(100));
+        assertEquals(5, snapshot.mean());
+        assertEquals(10, snapshot.max());
+    }
+
+    @Test
+    void should_report_large_values_within_bucket_precision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1_000; value <= 1_000_000; value += 1_000) {
+            histogram.record(value);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(500_000, snapshot.percentile(50), 500_000 * 0.04);
+        assertEquals(990_000, snapshot.percentile(99), 990_000 * 0.04);
+        assertEquals(1_000_000, snapshot.percentile(100));
+    }
+
+    @Test
+    void should_map_every_value_into_a_bucket_covering_it() {
+        for (long value : new long[]{0, 63, 64, 65, 127, 128, 1_000_003, Long.MAX_VALUE}) {
+            int bucket = LatencyHistogram.bucket(value);
+            assertTrue(LatencyHistogram.highestEquivalentValue(bucket) >= value);
+            assertTrue(bucket == 0 || LatencyHistogram.highestEquivalentValue(bucket - 1) < value);
+        }
+    }
+
+    @Test
+    void should_return_zero_for_an_empty_histogram() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+
+        assertEquals(0, snapshot.count());
+        assertEquals(0, snapshot.percentile(99));
+    }
+}
@@ -0,0 +1,178 @@
+package com.banking.banking.repository;
+
+import com.banking.banking.entity.Account;
+import com.banking.banking.entity.Money;
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.entity.enums.OperationType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void should_load_accounts_and_history_from_csv() throws Exception {
+        Path file = directory.resolve("accounts.csv");
+        Files.writeString(file, """
+                id,balance,history
+                1,100.50
+                2,-3.5,DEPOSIT:10:1704067200000;WITHDRAW:13.50:1704067260000
+                3,7\r
+                """);
+
+        Map<Long, Account> accounts = new AccountSnapshot(file, AccountSnapshot.Format.CSV, 1).load();
+
+        assertEquals(3, accounts.size());
+        assertEquals(Money.of("100.50"), accounts.get(1L).getBalance());
+        assertEquals(0, accounts.get(1L).getHistory().size());
+        assertEquals(Money.of("-3.50"), accounts.get(2L).getBalance());
+        assertEquals(Money.of("7.00"), accounts.get(3L).getBalance());
+
+        OperationHistory history = accounts.get(2L).getHistory();
+        assertEquals(2, history.size());
+        assertEquals(OperationType.WITHDRAW, history.type(1));
+        assertEquals(Money.of("13.50"), history.amount(1));
+        assertEquals(1704067260000L, history.timestamp(1));
+        assertEquals(OperationIdGenerator.firstId(1704067260000L), history.id(1));
+    }
+
+    @Test
+    void should_keep_the_opening_balance_given_in_csv() throws Exception {
+        Path file = directory.resolve("accounts.csv");
+        Files.writeString(file, """
+                1,100.50,90.50,DEPOSIT:10:1704067200000
+                2,-3.5,-1,WITHDRAW:13.50:1704067260000
+                3,7,7
+                4,20,DEPOSIT:5:1704067200000
+                """);
+
+        Map<Long, Account> accounts = new AccountSnapshot(file, AccountSnapshot.Format.CSV, 1).load();
+
+        assertEquals(Money.of("90.50"), accounts.get(1L).getOpeningBalance());
+        assertEquals(Money.of("-1.00"), accounts.get(2L).getOpeningBalance());
+        assertEquals(1, accounts.get(2L).getHistory().size());
+        assertEquals(Money.of("7.00"), accounts.get(3L).getOpeningBalance());
+        // without the column the balance is taken to include the history
+        assertEquals(Money.of("15.00"), accounts.get(4L).getOpeningBalance());
+    }
+
+    @Test
+    void should_split_csv_on_line_boundaries_when_parsing_in_parallel() throws Exception {
+        Path file = directory.resolve("accounts.csv");
+        StringBuilder csv = new StringBuilder();
+        for (int id = 1; id <= 10_000; id++) {
+            csv.append(id).append(',').append(id).append(".25\n");
+        }
+        Files.writeString(file, csv);
+
+        Map<Long, Account> accounts = new AccountSnapshot(file, AccountSnapshot.Format.CSV, 7).load();
+
+        assertEquals(10_000, accounts.size());
+        for (long id = 1; id <= 10_000; id++) {
+            assertEquals(id * 100 + 25, accounts.get(id).getBalance());
+        }
+    }
+
+    @Test
+    void should_reject_malformed_csv_lines() throws Exception {
+        Path file = directory.resolve("accounts.csv");
+        Files.writeString(file, "1,100.50\n2,1.234\n");
+
+        IOException exception = assertThrows(IOException.class,
+                () -> new AccountSnapshot(file, AccountSnapshot.Format.CSV, 1).load());
+        assertTrue(exception.getMessage().contains("byte 11"));
+    }
+
+    @Test
+    void should_round_trip_accounts_through_the_binary_format() throws Exception {
+        List<Account> written = new ArrayList<>();
+        for (long id = 1; id <= 1_000; id++) {
+            Account account = Account.builder().id(id).balance(id * 10).openingBalance(id * 3).history(new OperationHistory()).build();
+            for (int k = 0; k < id % 4; k++) {
+                account.getHistory().append(k + 1, OperationType.DEPOSIT, 5, 1704067200000L + k);
+            }
+            written.add(account);
+        }
+        Path file = directory.resolve("accounts.bin");
+        AccountSnapshot.writeBinary(file, written);
+
+        Map<Long, Account> accounts = new AccountSnapshot(file, AccountSnapshot.Format.BINARY, 3).load();
+
+        assertEquals(1_000, accounts.size());
+        for (Account expected : written) {
+            Account actual = accounts.get(expected.getId());
+            assertEquals(expected.getBalance(), actual.getBalance());
+            assertEquals(expected.getOpeningBalance(), actual.getOpeningBalance());
+            assertEquals(expected.getHistory().size(), actual.getHistory().size());
+            for (int k = 0; k < expected.getHistory().size(); k++) {
+                assertEquals(expected.getHistory().id(k), actual.getHistory().id(k));
+                assertEquals(expected.getHistory().timestamp(k), actual.getHistory().timestamp(k));
+            }
+        }
+    }
+
+    @Test
+    void should_read_histories_larger_than_one_mapped_window() throws Exception {
+        List<Account> written = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            Account account = Account.builder().id(id).balance(id).history(new OperationHistory()).build();
+            for (int k = 0; k < id % 7; k++) {
+                account.getHistory().append(id * 10 + k, OperationType.WITHDRAW, k + 1, 1704067200000L + k);
+            }
+            written.add(account);
+        }
+        Path file = directory.resolve("accounts.bin");
+        AccountSnapshot.writeBinary(file, written);
+
+        // three history records per window, so windows end both between and inside histories
+        Map<Long, Account> accounts = new AccountSnapshot(file, AccountSnapshot.Format.BINARY, 2, OperationHistory.UNBOUNDED, 96).load();
+
+        for (Account expected : written) {
+            OperationHistory actual = accounts.get(expected.getId()).getHistory();
+            assertEquals(expected.getHistory().size(), actual.size());
+            for (int k = 0; k < actual.size(); k++) {
+                assertEquals(expected.getHistory().id(k), actual.id(k));
+                assertEquals(expected.getHistory().amount(k), actual.amount(k));
+            }
+        }
+    }
+
+    @Test
+    void should_not_hide_a_drift_already_in_the_snapshot() throws Exception {
+        Account account = Account.builder().id(9L).balance(Money.of("50.00")).openingBalance(Money.of("10.00"))
+                .history(new OperationHistory()).build();
+        account.getHistory().append(1, OperationType.DEPOSIT, Money.of("30.00"), 1704067200000L);
+        Path file = directory.resolve("accounts.bin");
+        AccountSnapshot.writeBinary(file, List.of(account));
+
+        AccountRepository repository = new AccountRepository(null, new AccountSnapshot(file, AccountSnapshot.Format.BINARY, 1));
+        repository.init();
+
+        Account loaded = repository.findAccountById(9L).orElseThrow();
+        assertEquals(Money.of("10.00"), loaded.getOpeningBalance());
+        assertNotEquals(loaded.getBalance(), loaded.getOpeningBalance() + loaded.getHistory().netBefore(1));
+    }
+
+    @Test
+    void should_replace_the_demo_account_when_a_snapshot_is_configured() throws Exception {
+        Path file = directory.resolve("accounts.csv");
+        Files.writeString(file, "42,1.00\n");
+
+        AccountRepository repository = new AccountRepository(null, new AccountSnapshot(file, AccountSnapshot.Format.CSV, 2));
+        repository.init();
+
+        assertTrue(repository.findAccountById(1L).isEmpty());
+        assertEquals(Money.of("1.00"), repository.findAccountById(42L).orElseThrow().getBalance());
+    }
+}
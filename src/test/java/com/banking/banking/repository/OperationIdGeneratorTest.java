@@ -0,0 +1,124 @@
+package com.banking.banking.repository;
+
+import com.banking.banking.config.BankingProperties;
+import com.banking.banking.entity.Account;
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.entity.enums.OperationType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OperationIdGeneratorTest {
+
+    private static final long NOW = 1_704_067_200_123L;
+
+    @Test
+    void should_carry_the_time_and_node_in_increasing_ids() {
+        OperationIdGenerator generator = new OperationIdGenerator(5, () -> NOW);
+
+        long first = generator.next();
+        long second = generator.next();
+
+        assertEquals(first + 1, second);
+        assertEquals(NOW, OperationIdGenerator.timestamp(first));
+        assertEquals(5, first >>> OperationIdGenerator.SEQUENCE_BITS & OperationIdGenerator.MAX_NODE_ID);
+        assertEquals(OperationIdGenerator.firstId(NOW) | 5 << OperationIdGenerator.SEQUENCE_BITS, first);
+    }
+
+    @Test
+    void should_borrow_the_next_millisecond_when_the_sequence_is_exhausted() {
+        OperationIdGenerator generator = new OperationIdGenerator(0, () -> NOW);
+
+        long last = 0;
+        for (int i = 0; i <= 1 << OperationIdGenerator.SEQUENCE_BITS; i++) {
+            long id = generator.next();
+            assertTrue(id > last);
+            last = id;
+        }
+        assertEquals(NOW + 1, OperationIdGenerator.timestamp(last));
+        assertEquals(OperationIdGenerator.firstId(NOW + 1), last);
+    }
+
+    @Test
+    void should_keep_increasing_when_the_clock_goes_back() {
+        AtomicLong clock = new AtomicLong(NOW);
+        OperationIdGenerator generator = new OperationIdGenerator(0, clock::get);
+
+        long before = generator.next();
+        clock.set(NOW - 60_000);
+        long after = generator.next();
+
+        assertEquals(before + 1, after);
+        assertEquals(NOW, OperationIdGenerator.timestamp(after));
+    }
+
+    @Test
+    void should_issue_ids_above_those_already_in_the_histories() {
+        AccountRepository accountRepository = new AccountRepository();
+        Account account = accountRepository.save(Account.builder().id(1L).balance(0).history(new OperationHistory()).build());
+        long later = System.currentTimeMillis() + 3_600_000;
+        long future = OperationIdGenerator.firstId(later) | 7L << OperationIdGenerator.SEQUENCE_BITS | 41;
+        account.apply(future, OperationType.DEPOSIT, 100, OperationIdGenerator.timestamp(future));
+
+        OperationIdGenerator generator = new OperationIdGenerator(new BankingProperties(), accountRepository);
+
+        long next = generator.next();
+        assertTrue(next > future);
+        assertEquals(later + 1, OperationIdGenerator.timestamp(next));
+    }
+
+    @Test
+    void should_not_go_back_when_advanced_past_an_older_id() {
+        OperationIdGenerator generator = new OperationIdGenerator(3, () -> NOW);
+        long first = generator.next();
+
+        generator.advancePast(OperationIdGenerator.firstId(NOW - 1_000));
+
+        assertEquals(first + 1, generator.next());
+    }
+
+    @Test
+    void should_never_issue_the_same_id_twice_across_threads() throws Exception {
+        OperationIdGenerator generator = new OperationIdGenerator(new BankingProperties());
+        int threads = 8;
+        int perThread = 100_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    long[] ids = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        ids[i] = generator.next();
+                        assertTrue(i == 0 || ids[i] > ids[i - 1]);
+                    }
+                    return ids;
+                }));
+            }
+            long[] all = new long[threads * perThread];
+            for (int t = 0; t < threads; t++) {
+                System.arraycopy(futures.get(t).get(), 0, all, t * perThread, perThread);
+            }
+            Arrays.sort(all);
+            for (int i = 1; i < all.length; i++) {
+                assertNotEquals(all[i - 1], all[i]);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void should_reject_node_ids_out_of_range() {
+        assertThrows(IllegalArgumentException.class, () -> new OperationIdGenerator(OperationIdGenerator.MAX_NODE_ID + 1));
+        assertThrows(IllegalArgumentException.class, () -> new OperationIdGenerator(-1));
+    }
+}
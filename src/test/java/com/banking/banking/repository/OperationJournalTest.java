@@ -0,0 +1,167 @@
+package com.banking.banking.repository;
+
+import com.banking.banking.entity.Money;
+import com.banking.banking.entity.Account;
+import com.banking.banking.entity.Operation;
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.entity.enums.OperationType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OperationJournalTest {
+
+    private static final long REGION_SIZE = 4 * OperationJournal.RECORD_SIZE;
+
+    @TempDir
+    Path directory;
+
+    private OperationJournal open(boolean strict) throws Exception {
+        return OperationJournal.open(directory.resolve("operations.journal"), REGION_SIZE, strict, Duration.ofMillis(5));
+    }
+
+    private List<long[]> replay(OperationJournal journal) throws Exception {
+        List<long[]> records = new ArrayList<>();
+        journal.replay((type, flags, accountId, amount, timestamp) ->
+                records.add(new long[]{type, accountId, amount, timestamp}));
+        return records;
+    }
+
+    @Test
+    void should_replay_appended_records_across_regions_after_reopening() throws Exception {
+        try (OperationJournal journal = open(false)) {
+            assertEquals(0, replay(journal).size());
+            for (int i = 0; i < 10; i++) {
+                journal.append((byte) 2, (byte) 0, 7L, 100L + i, 1_000L + i);
+            }
+        }
+
+        try (OperationJournal journal = open(true)) {
+            List<long[]> records = replay(journal);
+            assertEquals(10, records.size());
+            for (int i = 0; i < 10; i++) {
+                assertEquals(7L, records.get(i)[1]);
+                assertEquals(100L + i, records.get(i)[2]);
+                assertEquals(1_000L + i, records.get(i)[3]);
+            }
+        }
+    }
+
+    @Test
+    void should_stop_at_torn_record_and_discard_everything_after_it() throws Exception {
+        try (OperationJournal journal = open(false)) {
+            replay(journal);
+            for (int i = 0; i < 5; i++) {
+                journal.append((byte) 1, (byte) 0, 3L, i, i);
+            }
+        }
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve("operations.journal").toFile(), "rw")) {
+            // corrupt the amount of the third record, the fourth and fifth stay intact
+            file.seek(3L * OperationJournal.RECORD_SIZE + 16);
+            file.writeLong(42L);
+        }
+
+        try (OperationJournal journal = open(false)) {
+            assertEquals(2, replay(journal).size());
+            journal.append((byte) 2, (byte) 0, 3L, 99L, 99L);
+        }
+
+        try (OperationJournal journal = open(false)) {
+            List<long[]> records = replay(journal);
+            assertEquals(3, records.size());
+            assertEquals(99L, records.get(2)[2]);
+        }
+    }
+
+    @Test
+    void should_replay_linked_records_only_as_a_complete_group() throws Exception {
+        try (OperationJournal journal = open(false)) {
+            replay(journal);
+            journal.append((byte) 1, (byte) 0, 3L, 1L, 1L);
+            journal.appendLinked((byte) 3, 3L, -5L, 4L, 5L, 2L);
+            // the next pair straddles the first and second region
+            journal.appendLinked((byte) 3, 4L, -7L, 3L, 7L, 3L);
+        }
+
+        try (OperationJournal journal = open(false)) {
+            List<long[]> records = replay(journal);
+            assertEquals(5, records.size());
+            assertEquals(-7L, records.get(3)[2]);
+            assertEquals(7L, records.get(4)[2]);
+        }
+    }
+
+    @Test
+    void should_drop_a_linked_record_whose_partner_was_torn() throws Exception {
+        try (OperationJournal journal = open(false)) {
+            replay(journal);
+            journal.append((byte) 1, (byte) 0, 3L, 1L, 1L);
+            journal.append((byte) 1, (byte) 0, 3L, 2L, 2L);
+            journal.appendLinked((byte) 3, 3L, -5L, 4L, 5L, 3L);
+        }
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve("operations.journal").toFile(), "rw")) {
+            // tear the second leg, which sits at the start of the second region
+            file.seek(4L * OperationJournal.RECORD_SIZE + 16);
+            file.writeLong(42L);
+        }
+
+        try (OperationJournal journal = open(false)) {
+            assertEquals(2, replay(journal).size());
+            journal.append((byte) 2, (byte) 0, 3L, 99L, 99L);
+        }
+
+        try (OperationJournal journal = open(false)) {
+            List<long[]> records = replay(journal);
+            assertEquals(3, records.size());
+            assertEquals(99L, records.get(2)[2]);
+        }
+    }
+
+    @Test
+    void should_refuse_appends_before_replay() throws Exception {
+        try (OperationJournal journal = open(false)) {
+            assertThrows(IllegalStateException.class, () -> journal.append((byte) 1, (byte) 0, 1L, 1L, 1L));
+        }
+    }
+
+    @Test
+    void should_rebuild_account_state_from_journal_on_startup() throws Exception {
+        try (OperationJournal journal = open(false)) {
+            AccountRepository repository = new AccountRepository(journal);
+            repository.init();
+            Account account = repository.findAccountById(1L).orElseThrow();
+            long id = OperationIdGenerator.firstId(OperationHistory.toEpochMillis(LocalDateTime.of(2024, 1, 1, 12, 0)));
+            for (OperationType type : List.of(OperationType.DEPOSIT, OperationType.WITHDRAW, OperationType.DEPOSIT)) {
+                Operation operation = Operation.builder()
+                        .id(id++)
+                        .accountId(account.getId())
+                        .type(type)
+                        .amount(Money.of("10.25"))
+                        .operationDate(LocalDateTime.of(2024, 1, 1, 12, 0))
+                        .build();
+                repository.persist(operation);
+                account.apply(operation);
+            }
+        }
+
+        try (OperationJournal journal = open(false)) {
+            AccountRepository repository = new AccountRepository(journal);
+            repository.init();
+            Account account = repository.findAccountById(1L).orElseThrow();
+            assertEquals(Money.of("110.75"), account.getBalance());
+            assertEquals(3, account.getHistory().size());
+            assertEquals(OperationType.WITHDRAW, account.getOperation(1).getType());
+            assertEquals(LocalDateTime.of(2024, 1, 1, 12, 0), account.getOperation(1).getOperationDate());
+            assertEquals(account.getHistory().id(0) + 1, account.getOperation(1).getId());
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.banking.banking.service;
+
+import com.banking.banking.engine.AccountEngine;
+import com.banking.banking.engine.StripedLockAccountEngine;
+import com.banking.banking.entity.Account;
+import com.banking.banking.entity.Money;
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.entity.dto.AccountSummaryDto;
+import com.banking.banking.entity.dto.BalanceDto;
+import com.banking.banking.entity.dto.OperationTotalsDto;
+import com.banking.banking.entity.enums.OperationType;
+import com.banking.banking.exception.AccountNotFoundException;
+import com.banking.banking.repository.AccountRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Optional;
+
+import static com.banking.banking.exception.Messages.ACCOUNT_NOT_FOUND;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@ExtendWith(MockitoExtension.class)
+class AccountServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Spy
+    private AccountEngine accountEngine = new StripedLockAccountEngine();
+
+    @InjectMocks
+    private AccountService accountService;
+
+    @Nested
+    @DisplayName("balance at")
+    class BalanceAt {
+
+        // Opens with 100.00, then every minute alternately deposits 3.00 and withdraws 1.00.
+        private Account account(int operations) {
+            Account account = Account.builder()
+                    .id(1L)
+                    .balance(Money.of("100.00"))
+                    .history(new OperationHistory())
+                    .build();
+            for (int i = 0; i < operations; i++) {
+                OperationType type = i % 2 == 0 ? OperationType.DEPOSIT : OperationType.WITHDRAW;
+                account.apply(0, type, Money.of(i % 2 == 0 ? "3.00" : "1.00"),
+                        OperationHistory.toEpochMillis(START.plusMinutes(i)));
+            }
+            return account;
+        }
+
+        @Test
+        void should_return_current_balance_when_no_time_is_given() {
+            Mockito.when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(account(3)));
+
+            BalanceDto balance = accountService.getBalance(1L, null);
+
+            assertEquals(Money.of("105.00"), balance.getBalance());
+        }
+
+        @Test
+        void should_return_the_balance_as_of_every_point_in_a_long_history() {
+            int operations = 10_000;
+            Account account = account(operations);
+            Mockito.when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(account));
+
+            assertEquals(Money.of("100.00"), accountService.getBalance(1L, START.minusSeconds(1)).getBalance());
+            for (int i = 0; i < operations; i += 97) {
+                long expected = Money.of("100.00") + (i / 2 + 1) * Money.of("3.00") - ((i + 1) / 2) * Money.of("1.00");
+                assertEquals(expected, accountService.getBalance(1L, START.plusMinutes(i).plusSeconds(30)).getBalance());
+            }
+            assertEquals(account.getBalance(), accountService.getBalance(1L, START.plusYears(1)).getBalance());
+        }
+
+        @Test
+        void should_throwError_when_accountNotFound() {
+            Mockito.when(accountRepository.findAccountById(99L)).thenReturn(Optional.empty());
+
+            Exception exception = Assertions.assertThrows(AccountNotFoundException.class,
+                    () -> accountService.getBalance(99L, START));
+
+            assertEquals(String.format(ACCOUNT_NOT_FOUND, 99L), exception.getMessage());
+        }
+    }
+
+    @Nested
+    @DisplayName("summary")
+    class Summary {
+
+        private Account account() {
+            return Account.builder().id(1L).balance(Money.of("100.00")).history(new OperationHistory()).build();
+        }
+
+        private void apply(Account account, OperationType type, String amount, LocalDateTime date) {
+            account.apply(0, type, Money.of(amount), OperationHistory.toEpochMillis(date));
+        }
+
+        @Test
+        void should_aggregate_operations_all_time_and_per_month() {
+            Account account = account();
+            apply(account, OperationType.DEPOSIT, "50.00", START.plusDays(3));
+            apply(account, OperationType.WITHDRAW, "120.00", START.plusDays(10));
+            apply(account, OperationType.TRANSFER, "-10.00", START.plusMonths(1));
+            apply(account, OperationType.TRANSFER, "25.00", START.plusMonths(1).plusDays(2));
+            Mockito.when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(account));
+
+            AccountSummaryDto summary = accountService.getSummary(1L);
+
+            assertEquals(Money.of("45.00"), summary.getBalance());
+            OperationTotalsDto allTime = summary.getAllTime();
+            assertEquals(4, allTime.getOperations());
+            assertEquals(Money.of("50.00"), allTime.getDeposits());
+            assertEquals(Money.of("120.00"), allTime.getWithdrawals());
+            assertEquals(Money.of("10.00"), allTime.getTransfersOut());
+            assertEquals(Money.of("25.00"), allTime.getTransfersIn());
+            assertEquals(Money.of("20.00"), allTime.getMinBalance());
+            assertEquals(Money.of("150.00"), allTime.getMaxBalance());
+            assertEquals(START.plusMonths(1).plusDays(2), allTime.getLastOperationDate());
+
+            assertEquals(2, summary.getMonths().size());
+            OperationTotalsDto february = summary.getMonths().get(1);
+            assertEquals(YearMonth.of(2024, 2), february.getMonth());
+            assertEquals(2, february.getOperations());
+            assertEquals(Money.of("20.00"), february.getMinBalance());
+            assertEquals(Money.of("45.00"), february.getMaxBalance());
+        }
+
+        @Test
+        void should_rebuild_the_summary_of_a_loaded_history() {
+            Account live = account();
+            Account loaded = account();
+            for (int i = 0; i < 100; i++) {
+                OperationType type = i % 3 == 0 ? OperationType.WITHDRAW : OperationType.DEPOSIT;
+                apply(live, type, "2.00", START.plusDays(i));
+                loaded.getHistory().append(0, type, Money.of("2.00"), OperationHistory.toEpochMillis(START.plusDays(i)));
+            }
+            loaded.setBalance(live.getBalance());
+            AccountRepository repository = new AccountRepository();
+            repository.save(loaded);
+            Mockito.when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(live), Optional.of(loaded));
+
+            AccountSummaryDto expected = accountService.getSummary(1L);
+            AccountSummaryDto actual = accountService.getSummary(1L);
+
+            assertEquals(expected.getAllTime().getMinBalance(), actual.getAllTime().getMinBalance());
+            assertEquals(expected.getAllTime().getDeposits(), actual.getAllTime().getDeposits());
+            assertEquals(expected.getMonths().size(), actual.getMonths().size());
+            assertEquals(expected.getMonths().get(2).getMaxBalance(), actual.getMonths().get(2).getMaxBalance());
+        }
+
+        @Test
+        void should_return_empty_totals_for_an_account_without_operations() {
+            Mockito.when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(account()));
+
+            AccountSummaryDto summary = accountService.getSummary(1L);
+
+            assertEquals(0, summary.getAllTime().getOperations());
+            assertEquals(Money.of("100.00"), summary.getAllTime().getMinBalance());
+            assertNull(summary.getAllTime().getLastOperationDate());
+            assertEquals(0, summary.getMonths().size());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.banking.banking.service;
+
+import com.banking.banking.config.BankingProperties;
+import com.banking.banking.exception.OverloadedException;
+import com.banking.banking.metrics.OperationMetrics;
+import com.banking.banking.metrics.RejectionReason;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.banking.banking.exception.Messages.ACCOUNT_OVERLOADED;
+import static com.banking.banking.exception.Messages.SERVER_OVERLOADED;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlTest {
+
+    private final OperationMetrics metrics = new OperationMetrics();
+
+    private AdmissionControl admissionControl(int maxInFlight, int maxPerAccount) {
+        BankingProperties properties = new BankingProperties();
+        properties.getAdmission().setMaxInFlight(maxInFlight);
+        properties.getAdmission().setMaxPerAccount(maxPerAccount);
+        properties.getAdmission().setRetryAfter(Duration.ofSeconds(2));
+        return new AdmissionControl(properties, metrics);
+    }
+
+    @Test
+    void should_refuse_an_account_beyond_its_depth_while_admitting_others() {
+        AdmissionControl admission = admissionControl(10, 1);
+
+        OverloadedException exception = assertThrows(OverloadedException.class,
+                () -> admission.execute(1L, () -> admission.execute(1L, () -> "nested")));
+        assertTrue(exception.isAccountScoped());
+        assertEquals(String.format(ACCOUNT_OVERLOADED, 1L), exception.getMessage());
+        assertEquals(Duration.ofSeconds(2), exception.getRetryAfter());
+        assertEquals(0, exception.getStackTrace().length);
+
+        assertEquals("other", admission.execute(1L, () -> admission.execute(2L, () -> "other")));
+        assertEquals(1, metrics.rejections(RejectionReason.OVERLOADED));
+    }
+
+    @Test
+    void should_refuse_everyone_beyond_the_global_limit() {
+        AdmissionControl admission = admissionControl(2, 10);
+
+        OverloadedException exception = assertThrows(OverloadedException.class,
+                () -> admission.execute(1L, () -> admission.execute(2L, () -> admission.execute(3L, () -> "third"))));
+        assertFalse(exception.isAccountScoped());
+        assertEquals(SERVER_OVERLOADED, exception.getMessage());
+    }
+
+    @Test
+    void should_release_capacity_when_the_action_fails() {
+        AdmissionControl admission = admissionControl(1, 1);
+
+        assertThrows(IllegalStateException.class, () -> admission.execute(1L, () -> {
+            throw new IllegalStateException();
+        }));
+
+        assertEquals("done", admission.execute(1L, () -> "done"));
+    }
+
+    @Test
+    void should_count_a_batch_against_every_account_it_touches() {
+        AdmissionControl admission = admissionControl(10, 1);
+
+        OverloadedException exception = assertThrows(OverloadedException.class,
+                () -> admission.execute(2L, () -> admission.execute(List.of(1L, 2L), () -> "batch")));
+        assertEquals(String.format(ACCOUNT_OVERLOADED, 2L), exception.getMessage());
+
+        // the rejected batch released account 1
+        assertEquals("single", admission.execute(1L, () -> "single"));
+        assertEquals("batch", admission.execute(List.of(1L, 2L), () -> "batch"));
+    }
+
+    @Test
+    void should_hold_capacity_until_an_async_operation_completes() {
+        AdmissionControl admission = admissionControl(10, 1);
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        CompletableFuture<String> admitted = admission.executeAsync(1L, () -> pending);
+        assertThrows(OverloadedException.class, () -> admission.execute(1L, () -> "blocked"));
+
+        pending.complete("done");
+        assertEquals("done", admitted.join());
+        assertEquals("free", admission.execute(1L, () -> "free"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.banking.banking.service;
+
+import com.banking.banking.config.BankingProperties;
+import com.banking.banking.exception.IdempotencyKeyReusedException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyCacheTest {
+
+    private static IdempotencyCache cache(Duration ttl, int maxEntries) {
+        BankingProperties properties = new BankingProperties();
+        properties.getIdempotency().setTtl(ttl);
+        properties.getIdempotency().setMaxEntries(maxEntries);
+        return new IdempotencyCache(properties);
+    }
+
+    @Test
+    void should_run_the_action_once_per_key() {
+        IdempotencyCache cache = cache(Duration.ofMinutes(1), 10);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals(1, cache.execute("key", 0, calls::incrementAndGet));
+        assertEquals(1, cache.execute("key", 0, calls::incrementAndGet));
+        assertEquals(2, cache.execute("other", 0, calls::incrementAndGet));
+    }
+
+    @Test
+    void should_make_concurrent_duplicates_wait_for_the_first_execution() throws Exception {
+        IdempotencyCache cache = cache(Duration.ofMinutes(1), 10);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> cache.execute("key", 0, () -> {
+            started.countDown();
+            await(release);
+            return calls.incrementAndGet();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Integer> duplicate = CompletableFuture.supplyAsync(() -> cache.execute("key", 0, calls::incrementAndGet));
+        release.countDown();
+
+        assertEquals(1, first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, duplicate.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void should_forget_failed_executions() {
+        IdempotencyCache cache = cache(Duration.ofMinutes(1), 10);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.execute("key", 0, () -> {
+            throw new IllegalArgumentException("rejected");
+        }));
+
+        assertEquals("ok", cache.execute("key", 0, () -> "ok"));
+    }
+
+    @Test
+    void should_evict_the_oldest_keys_beyond_the_maximum_size() {
+        IdempotencyCache cache = cache(Duration.ofMinutes(1), 3);
+        for (int i = 0; i < 10; i++) {
+            cache.execute("key-" + i, 0, () -> "done");
+        }
+
+        assertEquals(3, cache.size());
+        assertEquals("again", cache.execute("key-0", 0, () -> "again"));
+    }
+
+    @Test
+    void should_run_the_action_again_once_the_key_expired() throws Exception {
+        IdempotencyCache cache = cache(Duration.ofMillis(1), 10);
+        cache.execute("key", 0, () -> "first");
+        Thread.sleep(5);
+
+        assertEquals("second", cache.execute("key", 0, () -> "second"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void should_refuse_a_key_reused_for_a_different_request() {
+        IdempotencyCache cache = cache(Duration.ofMinutes(1), 10);
+        AtomicInteger calls = new AtomicInteger();
+        cache.execute("key", 1, calls::incrementAndGet);
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> cache.execute("key", 2, calls::incrementAndGet));
+        assertEquals(1, cache.execute("key", 1, calls::incrementAndGet));
+        assertEquals(1, calls.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.banking.banking.service;
+
+import com.banking.banking.config.BankingProperties;
+import com.banking.banking.engine.AccountEngine;
+import com.banking.banking.engine.ShardedAccountEngine;
+import com.banking.banking.engine.StripedLockAccountEngine;
+import com.banking.banking.entity.Account;
+import com.banking.banking.entity.Money;
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.entity.dto.OperationDto;
+import com.banking.banking.entity.dto.TransferDto;
+import com.banking.banking.entity.enums.OperationType;
+import com.banking.banking.event.OperationEventBus;
+import com.banking.banking.exception.OperationRejectedException;
+import com.banking.banking.metrics.OperationMetrics;
+import com.banking.banking.repository.AccountRepository;
+import com.banking.banking.repository.OperationIdGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OperationServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    private AccountRepository accountRepository;
+    private AccountEngine accountEngine;
+    private OperationService operationService;
+
+    private void setUp(String engine) {
+        accountRepository = new AccountRepository();
+        accountEngine = engine.equals("sharded") ? new ShardedAccountEngine(4, 64) : new StripedLockAccountEngine();
+        operationService = new OperationService(accountRepository, accountEngine, new OperationMetrics(),
+                new OperationEventBus(new BankingProperties()), new OperationIdGenerator(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (accountEngine instanceof ShardedAccountEngine sharded) {
+            sharded.close();
+        }
+    }
+
+    private Account account(long id, long balance) {
+        return accountRepository.save(Account.builder()
+                .id(id)
+                .balance(balance)
+                .history(new OperationHistory())
+                .build());
+    }
+
+    private OperationDto operation(long accountId, OperationType type, long amount) {
+        return OperationDto.builder()
+                .accountId(accountId)
+                .type(type.name())
+                .amount(amount)
+                .build();
+    }
+
+    private void runConcurrently(int perThread, ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    task.run(thread, i);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"locking", "sharded"})
+    void should_not_lose_updates_when_depositing_concurrently_on_one_account(String engine) throws Exception {
+        setUp(engine);
+        Account account = account(10L, 0);
+        int perThread = 5_000;
+
+        runConcurrently(perThread, (thread, i) ->
+                operationService.processOperation(operation(10L, OperationType.DEPOSIT, Money.ofUnits(1))));
+
+        assertEquals(Money.ofUnits(THREADS * perThread), account.getBalance());
+        assertEquals(THREADS * perThread, account.getHistory().size());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"locking", "sharded"})
+    void should_never_overdraw_when_withdrawing_concurrently_on_one_account(String engine) throws Exception {
+        setUp(engine);
+        Account account = account(11L, Money.ofUnits(100));
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(50, (thread, i) -> {
+            try {
+                operationService.processOperation(operation(11L, OperationType.WITHDRAW, Money.ofUnits(1)));
+                accepted.incrementAndGet();
+            } catch (OperationRejectedException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(99, accepted.get());
+        assertEquals(THREADS * 50 - 99, rejected.get());
+        assertEquals(Money.ofUnits(1), account.getBalance());
+        assertEquals(99, account.getHistory().size());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"locking", "sharded"})
+    void should_keep_every_account_consistent_under_mixed_load_on_many_accounts(String engine) throws Exception {
+        setUp(engine);
+        int accounts = 64;
+        for (long id = 100; id < 100 + accounts; id++) {
+            account(id, Money.ofUnits(1_000));
+        }
+
+        runConcurrently(2_000, (thread, i) -> {
+            long accountId = 100 + (thread * 31L + i) % accounts;
+            OperationType type = i % 2 == 0 ? OperationType.DEPOSIT : OperationType.WITHDRAW;
+            operationService.processOperation(operation(accountId, type, Money.of("2.05")));
+        });
+
+        long total = 0;
+        int operations = 0;
+        for (long id = 100; id < 100 + accounts; id++) {
+            Account account = accountRepository.findAccountById(id).orElseThrow();
+            assertTrue(account.getBalance() > 0);
+            total += account.getBalance();
+            operations += account.getHistory().size();
+        }
+        assertEquals(Money.ofUnits(accounts * 1_000L), total);
+        assertEquals(THREADS * 2_000, operations);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"locking", "sharded"})
+    void should_conserve_money_under_concurrent_opposing_transfers(String engine) throws Exception {
+        setUp(engine);
+        int accounts = 16;
+        for (long id = 200; id < 200 + accounts; id++) {
+            account(id, Money.ofUnits(50));
+        }
+        AtomicInteger accepted = new AtomicInteger();
+
+        runConcurrently(5_000, (thread, i) -> {
+            long a = 200 + (i * 7L + thread / 2) % accounts;
+            long b = 200 + (a - 200 + 1 + i % (accounts - 1)) % accounts;
+            // Even and odd threads move money in opposite directions between the same accounts.
+            TransferDto transfer = TransferDto.builder()
+                    .fromAccountId(thread % 2 == 0 ? a : b)
+                    .toAccountId(thread % 2 == 0 ? b : a)
+                    .amount(Money.of("3.30") * (1 + i % 5))
+                    .build();
+            try {
+                operationService.transfer(transfer);
+                accepted.incrementAndGet();
+            } catch (OperationRejectedException e) {
+                // insufficient balance
+            }
+        });
+
+        long total = 0;
+        int legs = 0;
+        for (long id = 200; id < 200 + accounts; id++) {
+            Account account = accountRepository.findAccountById(id).orElseThrow();
+            assertTrue(account.getBalance() > 0);
+            long replayed = Money.ofUnits(50);
+            for (int k = 0; k < account.getHistory().size(); k++) {
+                replayed += account.getHistory().amount(k);
+            }
+            assertEquals(replayed, account.getBalance());
+            total += account.getBalance();
+            legs += account.getHistory().size();
+        }
+        assertEquals(Money.ofUnits(accounts * 50L), total);
+        assertEquals(2 * accepted.get(), legs);
+        assertTrue(accepted.get() > 0);
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int thread, int iteration);
+    }
+}
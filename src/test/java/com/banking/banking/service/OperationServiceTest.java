@@ -1,11 +1,24 @@
 package com.banking.banking.service;
 
+import com.banking.banking.config.BankingProperties;
+import com.banking.banking.engine.AccountEngine;
+import com.banking.banking.engine.StripedLockAccountEngine;
+import com.banking.banking.entity.Money;
 import com.banking.banking.entity.Account;
 import com.banking.banking.entity.Operation;
+import com.banking.banking.entity.OperationHistory;
 import com.banking.banking.entity.dto.OperationDto;
+import com.banking.banking.entity.dto.OperationPageDto;
+import com.banking.banking.entity.dto.OperationResultDto;
+import com.banking.banking.entity.dto.TransferDto;
 import com.banking.banking.entity.enums.OperationType;
+import com.banking.banking.event.OperationEventBus;
 import com.banking.banking.exception.AccountNotFoundException;
+import com.banking.banking.exception.OperationRejectedException;
+import com.banking.banking.metrics.OperationMetrics;
+import com.banking.banking.metrics.RejectionReason;
 import com.banking.banking.repository.AccountRepository;
+import com.banking.banking.repository.OperationIdGenerator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -15,16 +28,23 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static com.banking.banking.exception.Messages.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 
 @ExtendWith(MockitoExtension.class)
 class OperationServiceTest {
@@ -33,6 +53,18 @@ class OperationServiceTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Spy
+    private AccountEngine accountEngine = new StripedLockAccountEngine();
+
+    @Spy
+    private OperationMetrics operationMetrics = new OperationMetrics();
+
+    @Spy
+    private OperationEventBus operationEventBus = new OperationEventBus(new BankingProperties());
+
+    @Spy
+    private OperationIdGenerator operationIdGenerator = new OperationIdGenerator(0);
+
     @InjectMocks
     private OperationService operationService;
 
@@ -40,13 +72,13 @@ class OperationServiceTest {
         // Create a mock account
         Account account = Account.builder()
                 .id(1L)
-                .balance(100.5)
-                .operations(new ArrayList<>())
+                .balance(Money.of("100.50"))
+                .history(new OperationHistory())
                 .build();
 
-        Operation withdrawOperation = new Operation(1L, account, OperationType.WITHDRAW, 50, LocalDateTime.now());
-        Operation depositOperation = new Operation(2L, account, OperationType.DEPOSIT, 100, LocalDateTime.now());
-        account.getOperations().addAll(List.of(withdrawOperation, depositOperation));
+        long now = OperationHistory.toEpochMillis(LocalDateTime.now());
+        account.getHistory().append(1L, OperationType.WITHDRAW, Money.of("50.00"), now);
+        account.getHistory().append(2L, OperationType.DEPOSIT, Money.of("100.00"), now);
 
         return account;
     }
@@ -63,14 +95,45 @@ class OperationServiceTest {
             OperationDto deposit = OperationDto.builder()
                     .accountId(99L)
                     .type(OperationType.DEPOSIT.name())
-                    .amount(50.0)
+                    .amount(Money.of("50.00"))
                     .build();
 
             Exception exception = Assertions.assertThrows(AccountNotFoundException.class, () -> operationService.processOperation(deposit));
             assertEquals(String.format(ACCOUNT_NOT_FOUND, deposit.getAccountId()), exception.getMessage());
+            assertEquals(1, operationMetrics.rejections(RejectionReason.ACCOUNT_NOT_FOUND));
         }
 
 
+        @Test
+        void should_move_the_last_operation_id_only_for_applied_operations() {
+            Account account = staticData();
+            Mockito.when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(account));
+            long before = operationService.getLastOperationId(1L);
+
+            OperationDto deposit = operationService.processOperation(OperationDto.builder().accountId(1L).type(OperationType.DEPOSIT.name()).amount(Money.of("5.00")).build());
+            assertEquals(deposit.getId(), operationService.getLastOperationId(1L));
+            assertTrue(deposit.getId() > before);
+
+            OperationDto overdraft = OperationDto.builder().accountId(1L).type(OperationType.WITHDRAW.name()).amount(Money.of("900.00")).build();
+            Assertions.assertThrows(OperationRejectedException.class, () -> operationService.processOperation(overdraft));
+            assertEquals(deposit.getId(), operationService.getLastOperationId(1L));
+        }
+
+        @Test
+        void should_assign_increasing_ids_carrying_the_stored_time() {
+            Account account = staticData();
+            Mockito.when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(account));
+
+            OperationDto first = operationService.processOperation(OperationDto.builder().accountId(1L).type(OperationType.DEPOSIT.name()).amount(Money.of("5.00")).build());
+            OperationDto second = operationService.processOperation(OperationDto.builder().accountId(1L).type(OperationType.WITHDRAW.name()).amount(Money.of("1.00")).build());
+
+            assertTrue(second.getId() > first.getId());
+            assertEquals(first.getId(), account.getHistory().id(2));
+            assertEquals(OperationIdGenerator.timestamp(second.getId()), account.getHistory().timestamp(3));
+            assertEquals(second.getOperationDate(), OperationHistory.toDateTime(account.getHistory().timestamp(3)));
+            assertEquals(second.getOperationDate(), operationService.getOperationsByAccountId(1L).get(3).getOperationDate());
+        }
+
         @Test
         void should_throwError_when_withdraw_amount_exceeds_balance() {
             Account account = staticData();
@@ -79,11 +142,44 @@ class OperationServiceTest {
             OperationDto withdraw = OperationDto.builder()
                     .accountId(1L)
                     .type(OperationType.WITHDRAW.name())
-                    .amount(200.0)
+                    .amount(Money.of("200.00"))
                     .build();
 
-            Exception exception = Assertions.assertThrows(IllegalArgumentException.class, () -> operationService.processOperation(withdraw));
-            assertEquals(String.format(INSUFFICIENT_BALANCE, 100.5), exception.getMessage());
+            Exception exception = Assertions.assertThrows(OperationRejectedException.class, () -> operationService.processOperation(withdraw));
+            assertEquals(String.format(INSUFFICIENT_BALANCE, "100.50"), exception.getMessage());
+            assertEquals(1, operationMetrics.rejections(RejectionReason.INSUFFICIENT_BALANCE));
+        }
+
+        @Test
+        void should_reject_a_deposit_that_would_overflow_without_journaling_it() {
+            Account account = Account.builder().id(1L).balance(Long.MAX_VALUE - 1).history(new OperationHistory()).build();
+            Mockito.when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(account));
+            OperationDto deposit = OperationDto.builder().accountId(1L).type(OperationType.DEPOSIT.name()).amount(2).build();
+
+            Exception exception = Assertions.assertThrows(OperationRejectedException.class, () -> operationService.processOperation(deposit));
+
+            assertEquals(BALANCE_OVERFLOW, exception.getMessage());
+            assertEquals(Long.MAX_VALUE - 1, account.getBalance());
+            Mockito.verify(accountRepository, Mockito.never()).persist(any(Operation.class));
+        }
+
+        @Test
+        void should_reject_without_capturing_stack_traces() {
+            Mockito.when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(staticData()));
+            Mockito.when(accountRepository.findAccountById(99L)).thenReturn(Optional.empty());
+            OperationDto zero = OperationDto.builder().accountId(1L).type(OperationType.DEPOSIT.name()).amount(0).build();
+            OperationDto unknown = OperationDto.builder().accountId(99L).type(OperationType.DEPOSIT.name()).amount(1).build();
+
+            Exception first = Assertions.assertThrows(OperationRejectedException.class, () -> operationService.processOperation(zero));
+            Exception second = Assertions.assertThrows(OperationRejectedException.class, () -> operationService.processOperation(zero));
+            Exception notFound = Assertions.assertThrows(AccountNotFoundException.class, () -> operationService.processOperation(unknown));
+
+            assertSame(first, second);
+            assertEquals(0, first.getStackTrace().length);
+            first.addSuppressed(new IllegalStateException("from a try-with-resources"));
+            assertEquals(0, first.getSuppressed().length);
+            assertEquals(0, notFound.getStackTrace().length);
+            assertEquals(String.format(ACCOUNT_NOT_FOUND, 99L), notFound.getMessage());
         }
 
         @Test
@@ -97,7 +193,7 @@ class OperationServiceTest {
                     .amount(0)
                     .build();
 
-            Exception exception = Assertions.assertThrows(IllegalArgumentException.class, () -> operationService.processOperation(withdraw));
+            Exception exception = Assertions.assertThrows(OperationRejectedException.class, () -> operationService.processOperation(withdraw));
             assertEquals(AMOUNT_MUST_BE_GREATER_THAN_0, exception.getMessage());
         }
 
@@ -111,13 +207,16 @@ class OperationServiceTest {
             OperationDto deposit = OperationDto.builder()
                     .accountId(1L)
                     .type(OperationType.DEPOSIT.name())
-                    .amount(50.0)
+                    .amount(Money.of("50.00"))
                     .build();
 
             OperationDto result = operationService.processOperation(deposit);
 
-            assertEquals(150.5, account.getBalance() + deposit.getAmount());
+            assertEquals(Money.of("150.50"), account.getBalance());
+            assertEquals(Money.of("150.50"), result.getBalance());
+            assertEquals(3, account.getHistory().size());
             assertEquals(OperationType.DEPOSIT.name(), result.getType());
+            assertEquals(1, operationMetrics.operationLatency(OperationType.DEPOSIT).snapshot().count());
         }
 
         @Test
@@ -129,18 +228,165 @@ class OperationServiceTest {
             OperationDto withdraw = OperationDto.builder()
                     .accountId(1L)
                     .type(OperationType.WITHDRAW.name())
-                    .amount(50.0)
+                    .amount(Money.of("50.00"))
                     .build();
 
             OperationDto result = operationService.processOperation(withdraw);
 
-            assertEquals(50.5, account.getBalance() - withdraw.getAmount());
+            assertEquals(Money.of("50.50"), account.getBalance());
+            assertEquals(Money.of("50.50"), result.getBalance());
+            assertEquals(3, account.getHistory().size());
             assertEquals(OperationType.WITHDRAW.name(), result.getType());
         }
 
     }
 
 
+    @Nested
+    @DisplayName("transfer")
+    class Transfer {
+
+        private Account target() {
+            return Account.builder().id(2L).balance(Money.of("10.00")).history(new OperationHistory()).build();
+        }
+
+        @Test
+        void should_debit_source_and_credit_destination() {
+            Account source = staticData();
+            Account target = target();
+            Mockito.when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(source));
+            Mockito.when(accountRepository.findAccountById(2L)).thenReturn(Optional.of(target));
+
+            TransferDto result = operationService.transfer(TransferDto.builder()
+                    .fromAccountId(1L).toAccountId(2L).amount(Money.of("40.25")).build());
+
+            assertEquals(Money.of("60.25"), source.getBalance());
+            assertEquals(Money.of("50.25"), target.getBalance());
+            assertEquals(Money.of("60.25"), result.getFromBalance());
+            assertEquals(Money.of("50.25"), result.getToBalance());
+            assertEquals(OperationType.TRANSFER, source.getHistory().type(2));
+            assertEquals(-Money.of("40.25"), source.getHistory().amount(2));
+            assertEquals(Money.of("40.25"), target.getHistory().amount(0));
+            assertEquals(result.getId(), source.getHistory().id(2));
+            assertEquals(result.getId(), target.getHistory().id(0));
+            assertEquals(OperationIdGenerator.timestamp(result.getId()), target.getHistory().timestamp(0));
+            Mockito.verify(accountRepository).persistTransfer(result.getId(), 1L, 2L, Money.of("40.25"));
+        }
+
+        @Test
+        void should_throwError_when_source_balance_is_insufficient() {
+            Account source = staticData();
+            Account target = target();
+            Mockito.when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(source));
+            Mockito.when(accountRepository.findAccountById(2L)).thenReturn(Optional.of(target));
+
+            Exception exception = Assertions.assertThrows(OperationRejectedException.class, () -> operationService.transfer(
+                    TransferDto.builder().fromAccountId(1L).toAccountId(2L).amount(Money.of("200.00")).build()));
+
+            assertEquals(String.format(INSUFFICIENT_BALANCE, "100.50"), exception.getMessage());
+            assertEquals(Money.of("10.00"), target.getBalance());
+            assertEquals(0, target.getHistory().size());
+        }
+
+        @Test
+        void should_reject_a_transfer_that_would_overflow_the_destination_before_touching_either_side() {
+            Account source = staticData();
+            int sourceHistory = source.getHistory().size();
+            Account target = Account.builder().id(2L).balance(Long.MAX_VALUE - 100).history(new OperationHistory()).build();
+            Mockito.when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(source));
+            Mockito.when(accountRepository.findAccountById(2L)).thenReturn(Optional.of(target));
+
+            Exception exception = Assertions.assertThrows(OperationRejectedException.class, () -> operationService.transfer(
+                    TransferDto.builder().fromAccountId(1L).toAccountId(2L).amount(Money.of("50.00")).build()));
+
+            assertEquals(BALANCE_OVERFLOW, exception.getMessage());
+            assertEquals(Money.of("100.50"), source.getBalance());
+            assertEquals(sourceHistory, source.getHistory().size());
+            assertEquals(Long.MAX_VALUE - 100, target.getBalance());
+            assertEquals(0, target.getHistory().size());
+            Mockito.verify(accountRepository, Mockito.never()).persistTransfer(Mockito.anyLong(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyLong());
+        }
+
+        @Test
+        void should_throwError_when_transferring_to_the_same_account() {
+            Mockito.when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(staticData()));
+
+            Exception exception = Assertions.assertThrows(OperationRejectedException.class, () -> operationService.transfer(
+                    TransferDto.builder().fromAccountId(1L).toAccountId(1L).amount(Money.of("1.00")).build()));
+
+            assertEquals(SAME_ACCOUNT_TRANSFER, exception.getMessage());
+        }
+
+        @Test
+        void should_throwError_when_a_transfer_is_posted_as_a_single_operation() {
+            Mockito.when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(staticData()));
+
+            Exception exception = Assertions.assertThrows(OperationRejectedException.class, () -> operationService.processOperation(
+                    OperationDto.builder().accountId(1L).type(OperationType.TRANSFER.name()).amount(Money.of("1.00")).build()));
+
+            assertEquals(TRANSFER_NOT_SUPPORTED, exception.getMessage());
+        }
+    }
+
+    @Nested
+    @DisplayName("process batch of operations")
+    class ProcessOperations {
+
+        @Test
+        void should_apply_valid_items_and_report_rejected_ones_without_failing_the_batch() {
+            Account account = staticData();
+            Mockito.when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(account));
+            Mockito.when(accountRepository.findAccountById(99L)).thenReturn(Optional.empty());
+
+            List<OperationDto> batch = List.of(
+                    OperationDto.builder().accountId(1L).type(OperationType.DEPOSIT.name()).amount(Money.of("50.00")).build(),
+                    OperationDto.builder().accountId(99L).type(OperationType.DEPOSIT.name()).amount(Money.of("10.00")).build(),
+                    OperationDto.builder().accountId(1L).type(OperationType.WITHDRAW.name()).amount(Money.of("500.00")).build(),
+                    OperationDto.builder().accountId(1L).type(OperationType.WITHDRAW.name()).amount(0).build(),
+                    OperationDto.builder().accountId(1L).type(OperationType.WITHDRAW.name()).amount(Money.of("20.00")).build()
+            );
+
+            List<OperationResultDto> results = operationService.processOperations(batch);
+
+            assertEquals(5, results.size());
+            assertTrue(results.get(0).isSuccess());
+            assertEquals(Money.of("150.50"), results.get(0).getOperation().getBalance());
+            assertFalse(results.get(1).isSuccess());
+            assertEquals(String.format(ACCOUNT_NOT_FOUND, 99L), results.get(1).getMessage());
+            assertFalse(results.get(2).isSuccess());
+            assertEquals(String.format(INSUFFICIENT_BALANCE, "150.50"), results.get(2).getMessage());
+            assertFalse(results.get(3).isSuccess());
+            assertEquals(AMOUNT_MUST_BE_GREATER_THAN_0, results.get(3).getMessage());
+            assertTrue(results.get(4).isSuccess());
+            assertEquals(4, results.get(4).getIndex());
+
+            assertEquals(Money.of("130.50"), account.getBalance());
+            assertEquals(4, account.getHistory().size());
+            Mockito.verify(accountRepository, Mockito.times(1)).findAccountById(1L);
+        }
+
+        @Test
+        void should_fail_only_the_item_whose_write_fails_unexpectedly() {
+            Account account = staticData();
+            int historySize = account.getHistory().size();
+            Mockito.when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(account));
+            Mockito.doThrow(new UncheckedIOException(new IOException("Journal is full")))
+                    .doNothing()
+                    .when(accountRepository).persist(any(Operation.class));
+
+            List<OperationResultDto> results = operationService.processOperations(List.of(
+                    OperationDto.builder().accountId(1L).type(OperationType.DEPOSIT.name()).amount(Money.of("50.00")).build(),
+                    OperationDto.builder().accountId(1L).type(OperationType.DEPOSIT.name()).amount(Money.of("10.00")).build()));
+
+            assertFalse(results.get(0).isSuccess());
+            assertEquals("java.io.IOException: Journal is full", results.get(0).getMessage());
+            assertTrue(results.get(1).isSuccess());
+            assertEquals(Money.of("110.50"), account.getBalance());
+            assertEquals(historySize + 1, account.getHistory().size());
+        }
+    }
+
+
     @Nested
     @DisplayName("get all operation by account id")
     class getOperations {
@@ -155,13 +401,89 @@ class OperationServiceTest {
             assertEquals(2, result.size());
             assertEquals(1L, result.get(0).getId());
             assertEquals(2L, result.get(1).getId());
-            assertEquals(50, result.get(0).getAmount());
-            assertEquals(100, result.get(1).getAmount());
+            assertEquals(Money.of("50.00"), result.get(0).getAmount());
+            assertEquals(Money.of("100.00"), result.get(1).getAmount());
             assertEquals(OperationType.WITHDRAW.name(), result.get(0).getType());
             assertEquals(OperationType.DEPOSIT.name(), result.get(1).getType());
 
         }
 
+        @Test
+        void should_return_only_operations_in_the_date_range_and_of_the_type() {
+            Account account = Account.builder().id(1L).balance(0).history(new OperationHistory()).build();
+            LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+            for (int day = 0; day < 60; day++) {
+                OperationType type = day % 3 == 0 ? OperationType.WITHDRAW : OperationType.DEPOSIT;
+                account.getHistory().append(day + 1, type, Money.ofUnits(1), OperationHistory.toEpochMillis(start.plusDays(day)));
+            }
+            Mockito.when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(account));
+
+            List<OperationDto> january = operationService.getOperationsByAccountId(1L,
+                    start.plusDays(10), start.plusDays(20), null);
+            List<OperationDto> deposits = operationService.getOperationsByAccountId(1L,
+                    start.plusDays(10), start.plusDays(20), OperationType.DEPOSIT);
+            List<OperationDto> since = operationService.getOperationsByAccountId(1L,
+                    start.plusDays(55).plusHours(1), null, null);
+
+            assertEquals(11, january.size());
+            assertEquals(11L, january.get(0).getId());
+            assertEquals(21L, january.get(10).getId());
+            assertEquals(8, deposits.size());
+            assertTrue(deposits.stream().allMatch(operation -> operation.getType().equals(OperationType.DEPOSIT.name())));
+            assertEquals(4, since.size());
+            assertEquals(57L, since.get(0).getId());
+        }
+
+        @Test
+        void should_throwError_when_date_range_is_inverted() {
+            LocalDateTime now = LocalDateTime.now();
+
+            Exception exception = Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> operationService.getOperationsByAccountId(1L, now, now.minusDays(1), null));
+            assertEquals(INVALID_DATE_RANGE, exception.getMessage());
+        }
+
+        @Test
+        void should_return_pages_following_the_cursor() {
+            Account account = staticData();
+            Mockito.when(accountRepository.findAccountById(1L)).thenReturn(Optional.ofNullable(account));
+
+            OperationPageDto first = operationService.getOperationsPage(1L, 0, 1);
+            OperationPageDto second = operationService.getOperationsPage(1L, first.getNextCursor(), 1);
+
+            assertEquals(1, first.getOperations().size());
+            assertEquals(1L, first.getOperations().get(0).getId());
+            assertEquals(1L, first.getNextCursor());
+            assertEquals(1, second.getOperations().size());
+            assertEquals(2L, second.getOperations().get(0).getId());
+            assertNull(second.getNextCursor());
+        }
+
+        @Test
+        void should_use_operation_ids_as_cursors() {
+            Account account = staticData();
+            account.getHistory().append(40L, OperationType.DEPOSIT, Money.of("1.00"), account.getHistory().timestamp(1));
+            account.getHistory().append(90L, OperationType.DEPOSIT, Money.of("2.00"), account.getHistory().timestamp(1));
+            Mockito.when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(account));
+
+            OperationPageDto first = operationService.getOperationsPage(1L, 2L, 1);
+            OperationPageDto second = operationService.getOperationsPage(1L, first.getNextCursor(), 5);
+            OperationPageDto between = operationService.getOperationsPage(1L, 50L, 5);
+
+            assertEquals(40L, first.getOperations().get(0).getId());
+            assertEquals(40L, first.getNextCursor());
+            assertEquals(90L, second.getOperations().get(0).getId());
+            assertNull(second.getNextCursor());
+            assertEquals(90L, between.getOperations().get(0).getId());
+        }
+
+        @Test
+        void should_throwError_when_page_limit_is_out_of_range() {
+            Exception exception = Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> operationService.getOperationsPage(1L, 0, OperationService.MAX_PAGE_SIZE + 1));
+            assertEquals(String.format(INVALID_PAGE_LIMIT, OperationService.MAX_PAGE_SIZE), exception.getMessage());
+        }
+
         @Test
         void should_throwError_when_accountNotFound() {
             // Arrange
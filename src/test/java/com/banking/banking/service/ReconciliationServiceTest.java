@@ -0,0 +1,142 @@
+package com.banking.banking.service;
+
+import com.banking.banking.config.BankingProperties;
+import com.banking.banking.engine.StripedLockAccountEngine;
+import com.banking.banking.entity.Account;
+import com.banking.banking.entity.Money;
+import com.banking.banking.entity.OperationHistory;
+import com.banking.banking.entity.dto.DriftDto;
+import com.banking.banking.entity.dto.OperationDto;
+import com.banking.banking.entity.dto.ReconciliationDto;
+import com.banking.banking.entity.enums.OperationType;
+import com.banking.banking.event.OperationEventBus;
+import com.banking.banking.metrics.OperationMetrics;
+import com.banking.banking.repository.AccountRepository;
+import com.banking.banking.repository.OperationIdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReconciliationServiceTest {
+
+    private static final int ACCOUNTS = 20_000;
+
+    private final AccountRepository accountRepository = new AccountRepository();
+    private final StripedLockAccountEngine accountEngine = new StripedLockAccountEngine();
+    private final BankingProperties properties = new BankingProperties();
+    private final OperationService operationService = new OperationService(accountRepository, accountEngine,
+            new OperationMetrics(), new OperationEventBus(properties), new OperationIdGenerator(0));
+    private final ReconciliationService reconciliationService = new ReconciliationService(accountRepository, accountEngine, properties);
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= ACCOUNTS; id++) {
+            Account account = Account.builder().id(id).balance(Money.of("100.00")).history(new OperationHistory()).build();
+            // history loaded together with a balance that already includes it
+            account.getHistory().append(0, OperationType.DEPOSIT, Money.of("40.00"), 1_000L);
+            accountRepository.save(account);
+        }
+    }
+
+    private void deposit(long accountId, String amount) {
+        operationService.processOperation(OperationDto.builder()
+                .accountId(accountId).type(OperationType.DEPOSIT.name()).amount(Money.of(amount)).build());
+    }
+
+    @Test
+    void should_find_no_drift_in_consistent_accounts() {
+        deposit(1, "5.00");
+        deposit(ACCOUNTS, "7.25");
+
+        ReconciliationDto report = reconciliationService.reconcile();
+
+        assertEquals(ACCOUNTS, report.getAccounts());
+        assertEquals(ACCOUNTS + 2, report.getOperations());
+        assertEquals(0, report.getDrifted());
+        assertTrue(report.getDrifts().isEmpty());
+        assertSame(report, reconciliationService.getLastReport());
+    }
+
+    @Test
+    void should_report_each_drifted_account_with_its_expected_balance() {
+        deposit(42, "5.00");
+        accountRepository.findAccountById(42L).orElseThrow().setBalance(Money.of("1.00"));
+        accountRepository.findAccountById(7L).orElseThrow().setBalance(Money.of("99.99"));
+
+        ReconciliationDto report = reconciliationService.reconcile();
+
+        assertEquals(2, report.getDrifted());
+        DriftDto drift = report.getDrifts().stream().filter(d -> d.getAccountId() == 42L).findFirst().orElseThrow();
+        assertEquals(Money.of("1.00"), drift.getBalance());
+        assertEquals(Money.of("105.00"), drift.getExpectedBalance());
+    }
+
+    @Test
+    void should_cap_the_reported_drifts() {
+        accountRepository.findAll().forEach(account -> account.setBalance(0));
+
+        ReconciliationDto report = reconciliationService.reconcile();
+
+        assertEquals(ACCOUNTS, report.getDrifted());
+        assertEquals(ReconciliationService.MAX_REPORTED_DRIFTS, report.getDrifts().size());
+    }
+
+    @Test
+    void should_read_an_account_that_never_snapshots_consistently_under_its_lock() {
+        // appended outside Account.apply, so its size never matches its version
+        accountRepository.findAccountById(3L).orElseThrow().getHistory().append(0, OperationType.DEPOSIT, Money.of("10.00"), 2_000L);
+
+        ReconciliationDto report = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> reconciliationService.reconcile());
+
+        assertEquals(1, report.getDrifted());
+        assertEquals(Money.of("110.00"), report.getDrifts().get(0).getExpectedBalance());
+    }
+
+    @Test
+    void should_not_wait_for_an_account_held_by_a_writer() throws Exception {
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread writer = new Thread(() -> accountEngine.execute(1L, () -> {
+            held.countDown();
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }));
+        writer.start();
+        try {
+            assertTrue(held.await(10, TimeUnit.SECONDS));
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertEquals(0, reconciliationService.reconcile().getDrifted()));
+        } finally {
+            release.countDown();
+            writer.join();
+        }
+    }
+
+    @Test
+    void should_not_report_drift_while_writers_keep_running() throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            for (int i = 0; running.get(); i++) {
+                deposit(1 + i % 16, "0.01");
+            }
+        });
+        writer.start();
+        try {
+            for (int run = 0; run < 5; run++) {
+                assertEquals(0, reconciliationService.reconcile().getDrifted());
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+}